@@ -0,0 +1,51 @@
+package com.delogica.springboot;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.delogica.springboot.model.Address;
+import com.delogica.springboot.model.Customer;
+import com.delogica.springboot.model.Order;
+import com.delogica.springboot.model.OrderItem;
+import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.model.Product;
+
+/**
+ * Datos de prueba compartidos por los benchmarks
+ */
+public final class BenchmarkData {
+
+	private BenchmarkData() {
+	}
+
+	public static Order order(int items) {
+		Customer customer = new Customer();
+		customer.setId(1L);
+		Address address = new Address();
+		address.setId(1L);
+
+		Order order = new Order();
+		order.setId(1L);
+		order.setCustomer(customer);
+		order.setShippingAddress(address);
+		order.setOrderDate(LocalDateTime.of(2024, 1, 1, 10, 0));
+		order.setStatus(OrderStatus.CREATED);
+		for (int i = 0; i < items; i++) {
+			order.getItems().add(item(order, i));
+		}
+		return order;
+	}
+
+	private static OrderItem item(Order order, int i) {
+		Product product = new Product();
+		product.setId((long) i + 1);
+
+		OrderItem item = new OrderItem();
+		item.setId((long) i + 1);
+		item.setOrder(order);
+		item.setProduct(product);
+		item.setQuantity(i % 5 + 1);
+		item.setUnitPrice(BigDecimal.valueOf(1999 + i, 2));
+		return item;
+	}
+}
@@ -0,0 +1,80 @@
+package com.delogica.springboot.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.delogica.springboot.BenchmarkData;
+import com.delogica.springboot.dto.OrderInputDTO;
+import com.delogica.springboot.dto.OrderItemInputDTO;
+import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.model.Order;
+
+/**
+ * Conversión entidad ↔ DTO de pedidos con MapStruct según el número de ítems
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+	@Param({ "1", "10", "100", "1000" })
+	private int items;
+
+	private OrderMapper orderMapper;
+	private OrderItemMapper orderItemMapper;
+	private Order order;
+	private OrderInputDTO input;
+
+	@Setup
+	public void setUp() {
+		orderItemMapper = new OrderItemMapperImpl();
+		orderMapper = new OrderMapperImpl();
+		ReflectionTestUtils.setField(orderMapper, "orderItemMapper", orderItemMapper);
+
+		order = BenchmarkData.order(items);
+
+		List<OrderItemInputDTO> lines = new ArrayList<>(items);
+		for (int i = 0; i < items; i++) {
+			OrderItemInputDTO line = new OrderItemInputDTO();
+			line.setProductId((long) i + 1);
+			line.setQuantity(i % 5 + 1);
+			lines.add(line);
+		}
+		input = new OrderInputDTO();
+		input.setCustomerId(1L);
+		input.setAddressId(1L);
+		input.setItems(lines);
+	}
+
+	@Benchmark
+	public OrderOutputDTO toDto() {
+		return orderMapper.toDto(order);
+	}
+
+	@Benchmark
+	public Order toEntity() {
+		return orderMapper.toEntity(input);
+	}
+
+	@Benchmark
+	public Object itemsToDtoList() {
+		return orderItemMapper.toDtoList(order.getItems());
+	}
+}
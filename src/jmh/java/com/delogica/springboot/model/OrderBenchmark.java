@@ -0,0 +1,57 @@
+package com.delogica.springboot.model;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.delogica.springboot.BenchmarkData;
+
+/**
+ * Cálculo del total del pedido (reducción de subtotales BigDecimal) según el
+ * número de ítems
+ * Está en el paquete del modelo para invocar el hook onUpdate, que recalcula el
+ * total y enlaza los ítems igual que antes de cada UPDATE
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+	@Param({ "1", "10", "100", "1000" })
+	private int items;
+
+	private Order order;
+
+	@Setup
+	public void setUp() {
+		order = BenchmarkData.order(items);
+	}
+
+	@Benchmark
+	public BigDecimal recomputeTotal() {
+		order.onUpdate();
+		return order.getTotal();
+	}
+
+	@Benchmark
+	public void itemSubtotals(Blackhole bh) {
+		for (OrderItem item : order.getItems()) {
+			bh.consume(item.getSubtotal());
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package com.delogica.springboot.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.delogica.springboot.SpringbootpruebaApplication;
+import com.delogica.springboot.dto.AddressOutputDTO;
+import com.delogica.springboot.dto.CustomerOutputDTO;
+import com.delogica.springboot.dto.ProductOutputDTO;
+import com.delogica.springboot.mapper.AddressMapper;
+import com.delogica.springboot.mapper.CustomerMapper;
+import com.delogica.springboot.mapper.ProductMapper;
+import com.delogica.springboot.model.Address;
+import com.delogica.springboot.model.Customer;
+import com.delogica.springboot.model.Product;
+
+/**
+ * Página de un listado cargando entidades y mapeándolas con MapStruct frente a
+ * la proyección directa en el DTO, contra H2 en memoria con el perfil de test
+ * La asignación por página la da el perfilador de GC (gc.alloc.rate.norm):
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ListingProjection -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingProjectionBenchmark {
+
+	private static final int ROWS = 200;
+
+	@Param({ "20", "100" })
+	private int pageSize;
+
+	private ConfigurableApplicationContext context;
+	private ProductRepository productRepository;
+	private CustomerRepository customerRepository;
+	private AddressRepository addressRepository;
+	private ProductMapper productMapper;
+	private CustomerMapper customerMapper;
+	private AddressMapper addressMapper;
+	private Pageable productPage;
+	private Pageable customerPage;
+	private Pageable addressPage;
+	private Long customerId;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(SpringbootpruebaApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.properties("spring.jpa.properties.hibernate.generate_statistics=false",
+						"logging.level.root=WARN")
+				.run();
+		productRepository = context.getBean(ProductRepository.class);
+		customerRepository = context.getBean(CustomerRepository.class);
+		addressRepository = context.getBean(AddressRepository.class);
+		productMapper = context.getBean(ProductMapper.class);
+		customerMapper = context.getBean(CustomerMapper.class);
+		addressMapper = context.getBean(AddressMapper.class);
+
+		List<Product> products = new ArrayList<>(ROWS);
+		List<Customer> customers = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			Product product = new Product();
+			product.setSku("BENCH-" + i);
+			product.setName("Producto " + i);
+			product.setPrice(BigDecimal.valueOf(1999 + i, 2));
+			product.setStock(100);
+			product.setActive(true);
+			products.add(product);
+
+			Customer customer = new Customer();
+			customer.setFullName("Cliente " + i);
+			customer.setEmail("bench" + i + "@test.com");
+			customer.setPhone(String.valueOf(600_000 + i));
+			customers.add(customer);
+		}
+		productRepository.saveAll(products);
+		customers = customerRepository.saveAll(customers);
+
+		Customer owner = customers.get(0);
+		customerId = owner.getId();
+		List<Address> addresses = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			Address address = new Address();
+			address.setCustomer(owner);
+			address.setLine1("Calle " + i);
+			address.setCity("Madrid");
+			address.setPostalCode("28001");
+			address.setCountry("ES");
+			address.setIsDefault(i == 0);
+			addresses.add(address);
+		}
+		addressRepository.saveAll(addresses);
+
+		// Mismo orden que aplican los servicios por defecto
+		productPage = PageRequest.of(1, pageSize, Sort.by("name").and(Sort.by(Sort.Direction.DESC, "id")));
+		customerPage = PageRequest.of(1, pageSize, Sort.by("fullName").and(Sort.by(Sort.Direction.DESC, "id")));
+		addressPage = PageRequest.of(1, pageSize, Sort.by(Sort.Direction.DESC, "id"));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<ProductOutputDTO> productsAsEntities() {
+		return productRepository.findAll(productPage).map(productMapper::toDto);
+	}
+
+	@Benchmark
+	public Page<ProductOutputDTO> productsAsDto() {
+		return productRepository.findAllAsDto(productPage);
+	}
+
+	@Benchmark
+	public Page<CustomerOutputDTO> customersAsEntities() {
+		return customerRepository.findAll(customerPage).map(customerMapper::toDto);
+	}
+
+	@Benchmark
+	public Page<CustomerOutputDTO> customersAsDto() {
+		return customerRepository.findAllAsDto(customerPage);
+	}
+
+	@Benchmark
+	public Page<AddressOutputDTO> addressesAsEntities() {
+		return addressRepository.findAllByCustomerId(customerId, addressPage).map(addressMapper::toDto);
+	}
+
+	@Benchmark
+	public Page<AddressOutputDTO> addressesAsDto() {
+		return addressRepository.findDtosByCustomerId(customerId, addressPage);
+	}
+}
@@ -0,0 +1,110 @@
+package com.delogica.springboot.search;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Índice de búsqueda en memoria frente a la consulta LIKE '%texto%' que genera
+ * ProductRepository.findByNameContainingIgnoreCase, sobre una tabla products
+ * en H2 con el número de filas indicado
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+	private static final String[] WORDS = { "teclado", "ratón", "monitor", "alfombrilla", "cable", "cargador",
+			"auriculares", "altavoz", "webcam", "micrófono", "portátil", "soporte", "funda", "batería", "lámpara",
+			"silla", "mesa", "router", "disco", "memoria" };
+	private static final String[] ADJECTIVES = { "mecánico", "inalámbrico", "gaming", "ergonómico", "compacto",
+			"profesional", "usb", "bluetooth", "rgb", "plegable" };
+
+	@Param({ "100000", "1000000" })
+	private int rows;
+
+	@Param({ "inalam", "teclado mec", "webc" })
+	private String query;
+
+	private Connection connection;
+	private PreparedStatement like;
+	private ProductSearchIndex index;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		connection = DriverManager.getConnection("jdbc:h2:mem:search;MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+		try (Statement ddl = connection.createStatement()) {
+			ddl.execute("create table products (id bigint primary key, sku varchar(255) not null unique,"
+					+ " name varchar(255) not null)");
+		}
+
+		index = new ProductSearchIndex();
+		connection.setAutoCommit(false);
+		try (PreparedStatement insert = connection.prepareStatement("insert into products values (?, ?, ?)")) {
+			for (int i = 1; i <= rows; i++) {
+				String name = WORDS[i % WORDS.length] + " " + ADJECTIVES[(i / WORDS.length) % ADJECTIVES.length]
+						+ " modelo " + i;
+				String sku = "SKU-" + i;
+				insert.setLong(1, i);
+				insert.setString(2, sku);
+				insert.setString(3, name);
+				insert.addBatch();
+				if (i % 10_000 == 0) {
+					insert.executeBatch();
+				}
+				index.index((long) i, name, sku);
+			}
+			insert.executeBatch();
+		}
+		connection.commit();
+
+		// Misma forma que la consulta derivada de findByNameContainingIgnoreCase
+		like = connection.prepareStatement(
+				"select id, sku, name from products where upper(name) like upper(?) escape '\\'");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		connection.close();
+	}
+
+	@Benchmark
+	public List<Long> likeQuery() throws SQLException {
+		like.setString(1, "%" + query + "%");
+		List<Long> ids = new ArrayList<>();
+		try (ResultSet rs = like.executeQuery()) {
+			while (rs.next()) {
+				ids.add(rs.getLong(1));
+			}
+		}
+		return ids;
+	}
+
+	@Benchmark
+	public List<ProductSearchIndex.Hit> searchIndex() {
+		return index.search(query);
+	}
+}
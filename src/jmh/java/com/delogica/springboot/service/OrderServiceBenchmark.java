@@ -0,0 +1,136 @@
+package com.delogica.springboot.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.delogica.springboot.SpringbootpruebaApplication;
+import com.delogica.springboot.dto.OrderCursorPageDTO;
+import com.delogica.springboot.dto.OrderInputDTO;
+import com.delogica.springboot.dto.OrderItemInputDTO;
+import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.model.Address;
+import com.delogica.springboot.model.Customer;
+import com.delogica.springboot.model.Product;
+import com.delogica.springboot.repository.AddressRepository;
+import com.delogica.springboot.repository.CustomerRepository;
+import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.service.interfaces.OrderService;
+
+/**
+ * Servicio de pedidos de extremo a extremo (validación, mapeo, JPA y
+ * transacción) contra H2 en memoria con el perfil de test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+	private static final int PRODUCTS = 100;
+	private static final int PAGE_SIZE = 20;
+
+	@Param({ "1", "10", "100", "1000" })
+	private int items;
+
+	private ConfigurableApplicationContext context;
+	private OrderService orderService;
+	private OrderInputDTO input;
+	private Long customerId;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(SpringbootpruebaApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.properties("spring.jpa.properties.hibernate.generate_statistics=false",
+						"logging.level.root=WARN")
+				.run();
+		orderService = context.getBean(OrderService.class);
+
+		Customer customer = new Customer();
+		customer.setFullName("Cliente Benchmark");
+		customer.setEmail("bench@test.com");
+		customer.setPhone("654321");
+		customer = context.getBean(CustomerRepository.class).save(customer);
+		customerId = customer.getId();
+
+		Address address = new Address();
+		address.setCustomer(customer);
+		address.setLine1("Calle Mayor 1");
+		address.setCity("Madrid");
+		address.setPostalCode("28001");
+		address.setCountry("ES");
+		address.setIsDefault(true);
+		address = context.getBean(AddressRepository.class).save(address);
+
+		ProductRepository productRepository = context.getBean(ProductRepository.class);
+		List<Long> productIds = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			Product product = new Product();
+			product.setSku("BENCH-" + i);
+			product.setName("Producto " + i);
+			product.setPrice(BigDecimal.valueOf(1999 + i, 2));
+			product.setStock(Integer.MAX_VALUE);
+			product.setActive(true);
+			productIds.add(productRepository.save(product).getId());
+		}
+
+		List<OrderItemInputDTO> lines = new ArrayList<>(items);
+		for (int i = 0; i < items; i++) {
+			OrderItemInputDTO line = new OrderItemInputDTO();
+			line.setProductId(productIds.get(i % PRODUCTS));
+			line.setQuantity(1);
+			lines.add(line);
+		}
+		input = new OrderInputDTO();
+		input.setCustomerId(customerId);
+		input.setAddressId(address.getId());
+		input.setItems(lines);
+
+		for (int i = 0; i < PAGE_SIZE * 5; i++) {
+			orderService.create(input);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public OrderOutputDTO create() {
+		return orderService.create(input);
+	}
+
+	@Benchmark
+	public Page<OrderOutputDTO> findByCustomerId() {
+		return orderService.findByCustomerId(customerId, PageRequest.of(2, PAGE_SIZE));
+	}
+
+	@Benchmark
+	public OrderCursorPageDTO scrollByCustomerId() {
+		return orderService.scrollByCustomerId(customerId, null, PAGE_SIZE);
+	}
+}
@@ -0,0 +1,133 @@
+package com.delogica.springboot.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+
+import com.delogica.springboot.SpringbootpruebaApplication;
+import com.delogica.springboot.dto.OrderInputDTO;
+import com.delogica.springboot.dto.OrderItemInputDTO;
+import com.delogica.springboot.model.Address;
+import com.delogica.springboot.model.Customer;
+import com.delogica.springboot.model.Product;
+import com.delogica.springboot.repository.AddressRepository;
+import com.delogica.springboot.repository.CustomerRepository;
+import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.service.interfaces.OrderService;
+
+/**
+ * Prueba de carga: ráfagas de llamadas concurrentes al servicio de pedidos a
+ * través del applicationTaskExecutor de Spring, con hilos de plataforma (pool
+ * acotado) o con hilos virtuales más el bulkhead de BBDD
+ * El modo virtual solo tiene efecto ejecutando con Java 21:
+ * mvn -Pjava21,benchmark test-compile exec:exec -Djmh.args="ThreadingMode"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadingModeBenchmark {
+
+	@Param({ "false", "true" })
+	private boolean virtualThreads;
+
+	@Param({ "50", "500" })
+	private int concurrency;
+
+	private ConfigurableApplicationContext context;
+	private AsyncTaskExecutor executor;
+	private OrderService orderService;
+	private OrderInputDTO input;
+	private Long customerId;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(SpringbootpruebaApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.properties("spring.threads.virtual.enabled=" + virtualThreads,
+						"spring.jpa.properties.hibernate.generate_statistics=false",
+						"logging.level.root=WARN")
+				.run();
+		executor = context.getBean("applicationTaskExecutor", AsyncTaskExecutor.class);
+		orderService = context.getBean(OrderService.class);
+
+		Customer customer = new Customer();
+		customer.setFullName("Cliente Carga");
+		customer.setEmail("carga@test.com");
+		customer.setPhone("111111");
+		customer = context.getBean(CustomerRepository.class).save(customer);
+		customerId = customer.getId();
+
+		Address address = new Address();
+		address.setCustomer(customer);
+		address.setLine1("Calle Mayor 1");
+		address.setCity("Madrid");
+		address.setPostalCode("28001");
+		address.setCountry("ES");
+		address.setIsDefault(true);
+		address = context.getBean(AddressRepository.class).save(address);
+
+		Product product = new Product();
+		product.setSku("LOAD-1");
+		product.setName("Producto carga");
+		product.setPrice(new BigDecimal("9.99"));
+		product.setStock(Integer.MAX_VALUE);
+		product.setActive(true);
+		product = context.getBean(ProductRepository.class).save(product);
+
+		OrderItemInputDTO line = new OrderItemInputDTO();
+		line.setProductId(product.getId());
+		line.setQuantity(1);
+		input = new OrderInputDTO();
+		input.setCustomerId(customerId);
+		input.setAddressId(address.getId());
+		input.setItems(List.of(line));
+		for (int i = 0; i < 100; i++) {
+			orderService.create(input);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	// Una ráfaga: 90% lecturas paginadas, 10% altas
+	@Benchmark
+	public int burst() throws Exception {
+		List<Future<?>> calls = new ArrayList<>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			boolean write = i % 10 == 0;
+			calls.add(executor.submit(() -> write
+					? orderService.create(input)
+					: orderService.findByCustomerId(customerId, PageRequest.of(0, 20))));
+		}
+		for (Future<?> call : calls) {
+			call.get();
+		}
+		return calls.size();
+	}
+}
@@ -0,0 +1,47 @@
+package com.delogica.springboot.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Resolución del Pageable efectivo con el orden por defecto de pedidos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageablesBenchmark {
+
+	private final Pageables pageables = new Pageables();
+	private final Pageable unsorted = PageRequest.of(3, 20);
+	private final Pageable sorted = PageRequest.of(3, 20, Sort.by("total"));
+
+	@Benchmark
+	public Pageable withDefaultSortUnsorted() {
+		return pageables.withDefaultSort(unsorted, pageables.orderDefaultSort());
+	}
+
+	@Benchmark
+	public Pageable withDefaultSortSorted() {
+		return pageables.withDefaultSort(sorted, pageables.orderDefaultSort());
+	}
+
+	@Benchmark
+	public Pageable withDefaultSortNull() {
+		return pageables.withDefaultSort(null, pageables.orderDefaultSort());
+	}
+}
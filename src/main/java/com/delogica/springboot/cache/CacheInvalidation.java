@@ -0,0 +1,15 @@
+package com.delogica.springboot.cache;
+
+import java.io.Serializable;
+
+/**
+ * Aviso de que una entidad cacheada ha cambiado en un nodo
+ *
+ * @param origin     id del nodo que hizo el cambio, para ignorar los propios
+ * @param entityName nombre de entidad de Hibernate (nombre completo de la clase)
+ * @param id         id de la entidad
+ * @param queries    si el cambio puede alterar el resultado de consultas cacheadas
+ */
+public record CacheInvalidation(String origin, String entityName, Serializable id, boolean queries)
+        implements Serializable {
+}
@@ -0,0 +1,21 @@
+package com.delogica.springboot.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Canal entre nodos para las invalidaciones de la caché de segundo nivel
+ * (topic de un broker, pub/sub de Redis...)
+ * Cada nodo publica los cambios que confirma y expulsa de su caché local los
+ * que publican los demás; la entrega es como mucho una vez, y la caducidad de
+ * las regiones acota lo que puede durar un dato obsoleto si se pierde un aviso
+ */
+public interface CacheInvalidationChannel {
+
+    /**
+     * Envía el aviso a todos los suscriptores, incluido el propio nodo
+     */
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+
+}
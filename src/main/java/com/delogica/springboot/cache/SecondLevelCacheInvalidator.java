@@ -0,0 +1,199 @@
+package com.delogica.springboot.cache;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene coherente la caché de segundo nivel entre nodos
+ * Hibernate ya actualiza la caché local al confirmar cada cambio de una entidad
+ * cacheada; este componente publica esos cambios en el canal y, al recibir los
+ * de otros nodos, expulsa la entidad y las consultas cacheadas afectadas
+ * Las actualizaciones masivas o nativas no pasan por los eventos de Hibernate:
+ * quien las lanza debe llamar a lockUntilCompletion antes de ejecutarlas, o a
+ * evictAfterCommit si una lectura intermedia desactualizada es inofensiva
+ */
+@Slf4j
+@Component
+public class SecondLevelCacheInvalidator {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final SessionFactoryImplementor sessionFactory;
+    private final CacheInvalidationChannel channel;
+    private final EntityManager entityManager;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory, CacheInvalidationChannel channel,
+            EntityManager entityManager) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.channel = channel;
+        this.entityManager = entityManager;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        CommitListener listener = new CommitListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        channel.subscribe(this::onInvalidation);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Expulsa las entidades de la caché local y avisa al resto de nodos cuando
+     * la transacción en curso confirma; sin transacción lo hace en el acto
+     * No invalida las consultas cacheadas: es para cambios que no alteran
+     * ninguna (p. ej. el stock, o el borrado de una dirección)
+     *
+     * @param entityClass entidad cacheada
+     * @param ids         ids modificados
+     */
+    public void evictAfterCommit(Class<?> entityClass, Collection<? extends Serializable> ids) {
+        if (ids.isEmpty() || !sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass).canWriteToCache()) {
+            return;
+        }
+        String entityName = entityClass.getName();
+        List<? extends Serializable> snapshot = List.copyOf(ids);
+        Runnable evict = () -> snapshot.forEach(id -> {
+            sessionFactory.getCache().evictEntityData(entityName, id);
+            channel.publish(new CacheInvalidation(nodeId, entityName, id, false));
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    /**
+     * Bloquea (soft lock) las entradas de las entidades en la caché local antes
+     * de modificarlas con una sentencia nativa, y las libera al terminar la
+     * transacción en curso; si confirma, avisa además al resto de nodos
+     * Mientras dura el bloqueo las lecturas van a la BBDD, y al liberarlo se
+     * rechazan las cargas que empezaron antes: ninguna puede volver a dejar en
+     * caché el estado anterior al cambio
+     * Sin transacción, equivale a evictAfterCommit
+     *
+     * @param entityClass entidad cacheada
+     * @param ids         ids que se van a modificar
+     */
+    public void lockUntilCompletion(Class<?> entityClass, Collection<? extends Serializable> ids) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (ids.isEmpty() || !persister.canWriteToCache()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAfterCommit(entityClass, ids);
+            return;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        Map<Object, SoftLock> locks = new LinkedHashMap<>();
+        List<? extends Serializable> snapshot = List.copyOf(ids);
+        for (Serializable id : snapshot) {
+            Object key = access.generateCacheKey(id, persister, sessionFactory, session.getTenantIdentifier());
+            locks.put(key, access.lockItem(session, key, null));
+        }
+        String entityName = entityClass.getName();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach((key, lock) -> access.unlockItem(session, key, lock));
+                if (status == STATUS_COMMITTED) {
+                    snapshot.forEach(id -> channel.publish(new CacheInvalidation(nodeId, entityName, id, false)));
+                }
+            }
+        });
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        sessionFactory.getCache().evictEntityData(invalidation.entityName(), invalidation.id());
+        if (invalidation.queries()) {
+            // Las marcas de modificación por tabla son locales: las consultas
+            // cacheadas aquí no verían el cambio de otro nodo
+            sessionFactory.getCache().evictQueryRegions();
+        }
+    }
+
+    private void publish(EntityPersister persister, Object id) {
+        try {
+            channel.publish(new CacheInvalidation(nodeId, persister.getEntityName(), (Serializable) id, true));
+        } catch (RuntimeException e) {
+            // El cambio ya está confirmado; los otros nodos lo verán al caducar la entrada
+            log.warn("No se ha podido publicar la invalidación de {}#{}", persister.getEntityName(), id, e);
+        }
+    }
+
+    private class CommitListener
+            implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.canWriteToCache();
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            publish(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            publish(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            publish(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.delogica.springboot.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.delogica.springboot.exceptions.ServiceUnavailableException;
+
+/**
+ * Limita el número de llamadas concurrentes a un recurso escaso (la BBDD)
+ * Es reentrante por hilo: una llamada anidada desde un hilo que ya tiene permiso
+ * no consume otro, así un servicio que llama a otro no se bloquea a sí mismo
+ * Si no hay permiso libre en maxWait, falla en lugar de encolar sin límite
+ */
+public class Bulkhead {
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T run() throws Throwable;
+    }
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final ThreadLocal<Integer> depth = ThreadLocal.withInitial(() -> 0);
+
+    public Bulkhead(int maxConcurrent, Duration maxWait) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent debe ser > 0");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public <T> T call(Call<T> call) throws Throwable {
+        int current = depth.get();
+        if (current > 0) {
+            depth.set(current + 1);
+            try {
+                return call.run();
+            } finally {
+                depth.set(current);
+            }
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrumpido esperando acceso a la base de datos");
+        }
+        if (!acquired) {
+            throw new ServiceUnavailableException("Demasiadas peticiones concurrentes, inténtelo de nuevo");
+        }
+
+        depth.set(1);
+        try {
+            return call.run();
+        } finally {
+            depth.remove();
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
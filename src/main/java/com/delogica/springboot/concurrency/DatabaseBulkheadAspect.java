@@ -0,0 +1,52 @@
+package com.delogica.springboot.concurrency;
+
+import java.time.Duration;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aplica un Bulkhead a los métodos públicos de los servicios, que son los que
+ * abren transacción y piden conexión a Hikari
+ * Pensado para el modo de hilos virtuales, donde el número de hilos no limita la
+ * concurrencia y todas las peticiones acabarían esperando en el pool
+ * Se activa con app.bulkhead.enabled (por defecto, cuando hay hilos virtuales)
+ * El límite es el tamaño del pool menos app.bulkhead.reserved-connections: el relay
+ * del outbox, la carga del filtro de emails y las tareas programadas piden conexión
+ * sin pasar por los servicios y deben encontrar alguna libre
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true")
+public class DatabaseBulkheadAspect {
+
+    private final Bulkhead bulkhead;
+
+    public DatabaseBulkheadAspect(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${app.bulkhead.reserved-connections}") int reservedConnections,
+            @Value("${app.bulkhead.max-wait}") Duration maxWait) {
+        int maxConcurrent = poolSize - reservedConnections;
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("app.bulkhead.reserved-connections (" + reservedConnections
+                    + ") debe ser menor que el tamaño del pool (" + poolSize + ")");
+        }
+        this.bulkhead = new Bulkhead(maxConcurrent, maxWait);
+    }
+
+    @Around("within(com.delogica.springboot.service.impl..*) && execution(public * *(..))")
+    public Object guard(ProceedingJoinPoint pjp) throws Throwable {
+        return bulkhead.call(pjp::proceed);
+    }
+
+    public int availablePermits() {
+        return bulkhead.availablePermits();
+    }
+}
@@ -0,0 +1,57 @@
+package com.delogica.springboot.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * Reintento acotado ante conflictos de bloqueo optimista
+ * Cada reintento espera backoff × intento más un jitter aleatorio de hasta
+ * otro tanto, para que las transacciones que chocaron no vuelvan a coincidir
+ * Cualquier otra excepción, y el conflicto del último intento, se propagan
+ */
+public class OptimisticRetry {
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T run() throws Throwable;
+    }
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetry(int maxAttempts, long backoffMillis) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts debe ser > 0");
+        }
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    public <T> T call(Call<T> call) throws Throwable {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return call.run();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        long base = backoffMillis * attempt;
+        if (base <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(base + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
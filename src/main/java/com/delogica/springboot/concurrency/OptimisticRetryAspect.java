@@ -0,0 +1,31 @@
+package com.delogica.springboot.concurrency;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Aplica OptimisticRetry a los métodos anotados con RetryOnConflict
+ * Se ordena por fuera del proxy transaccional para que cada intento abra y
+ * confirme su propia transacción; si ya hay una transacción en curso (llamada
+ * anidada) no reintenta, porque el conflicto ha invalidado la transacción del
+ * llamante y el reintento corresponde a quien la abrió
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class OptimisticRetryAspect {
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint pjp, RetryOnConflict retryOnConflict) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pjp.proceed();
+        }
+        return new OptimisticRetry(retryOnConflict.maxAttempts(), retryOnConflict.backoffMillis())
+                .call(pjp::proceed);
+    }
+}
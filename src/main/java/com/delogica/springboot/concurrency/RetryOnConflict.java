@@ -0,0 +1,26 @@
+package com.delogica.springboot.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reintenta el método si su transacción falla por un conflicto de versión
+ * optimista con otra transacción concurrente
+ * Solo para operaciones idempotentes (que fijan un estado absoluto), ya que el
+ * método se vuelve a ejecutar entero en una transacción nueva
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    // Número máximo de ejecuciones, incluida la primera
+    int maxAttempts() default 3;
+
+    // Espera base antes del primer reintento; crece con cada intento y lleva jitter
+    long backoffMillis() default 20;
+
+}
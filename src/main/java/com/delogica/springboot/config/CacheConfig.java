@@ -0,0 +1,40 @@
+package com.delogica.springboot.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Habilita la caché declarativa
+ * Los cachés y su política de expulsión se configuran en application.properties,
+ * salvo el de totales de los listados, que lleva su propio TTL
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_SKU = "productsBySku";
+    public static final String ACTIVE_PRODUCTS = "activeProducts";
+    // Totales aproximados de los listados: no se invalidan con las escrituras,
+    // solo caducan
+    public static final String LIST_COUNTS = "listCounts";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> listCountsCacheCustomizer(
+            @Value("${app.pagination.count-ttl:30s}") Duration countTtl) {
+        return manager -> manager.registerCustomCache(LIST_COUNTS, Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(countTtl)
+                .recordStats()
+                .build());
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.delogica.springboot.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (relay del outbox y purga de las claves de
+ * idempotencia)
+ * Se desactiva entera con app.scheduling.enabled=false, p. ej. en tests; cada
+ * tarea tiene además su propio interruptor (app.outbox.relay.enabled)
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+
+}
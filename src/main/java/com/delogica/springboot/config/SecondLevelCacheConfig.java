@@ -0,0 +1,25 @@
+package com.delogica.springboot.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.delogica.springboot.cache.CacheInvalidationChannel;
+import com.delogica.springboot.cache.LocalCacheInvalidationChannel;
+
+/**
+ * Canal de invalidación de la caché de segundo nivel
+ * Con varios nodos debe declararse un CacheInvalidationChannel sobre el broker
+ * compartido; sin él se usa el canal en proceso, válido para un único nodo
+ * Las regiones y sus límites se configuran en hibernate-cache.conf
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationChannel cacheInvalidationChannel() {
+        return new LocalCacheInvalidationChannel();
+    }
+
+}
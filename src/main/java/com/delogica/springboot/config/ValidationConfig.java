@@ -0,0 +1,21 @@
+package com.delogica.springboot.config;
+
+import org.hibernate.validator.HibernateValidatorConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de Bean Validation
+ * Los servicios declaran las restricciones de parámetros en la implementación
+ * (@Validated) y no en la interfaz, por lo que se permite redefinirlas
+ */
+@Configuration
+public class ValidationConfig {
+
+    @Bean
+    public ValidationConfigurationCustomizer allowParameterConstraintOverride() {
+        return configuration -> configuration.addProperty(
+                HibernateValidatorConfiguration.ALLOW_PARAMETER_CONSTRAINT_OVERRIDE, "true");
+    }
+}
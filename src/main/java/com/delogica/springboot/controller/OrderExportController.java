@@ -0,0 +1,56 @@
+package com.delogica.springboot.controller;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.delogica.springboot.dto.ExportFormat;
+import com.delogica.springboot.service.interfaces.OrderService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exportación de pedidos por rango de fechas
+ * La respuesta se escribe en streaming desde el servicio, sin paginar ni
+ * materializar el resultado completo en memoria
+ */
+@RestController
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+public class OrderExportController {
+
+    private final OrderService orderService;
+
+    /**
+     * Exporta los pedidos entre start y end (ambos inclusive)
+     *
+     * @param start  fecha y hora de inicio en formato ISO
+     * @param end    fecha y hora de fin en formato ISO
+     * @param format CSV o NDJSON, por defecto CSV
+     * @return cuerpo en streaming con el contenido como adjunto
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        StreamingResponseBody body = out -> orderService.exportByOrderDateBetween(start, end, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders." + format.getExtension())
+                        .build().toString())
+                .body(body);
+    }
+}
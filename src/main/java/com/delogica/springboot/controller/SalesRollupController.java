@@ -0,0 +1,62 @@
+package com.delogica.springboot.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.delogica.springboot.dto.DailySalesDTO;
+import com.delogica.springboot.dto.ProductSalesDTO;
+import com.delogica.springboot.dto.StatusSalesDTO;
+import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.service.interfaces.SalesRollupService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Consultas de ventas por rango de días servidas desde los agregados diarios,
+ * y reconstrucción de esos agregados para cargas iniciales
+ */
+@RestController
+@RequestMapping("/api/sales")
+@RequiredArgsConstructor
+public class SalesRollupController {
+
+    private final SalesRollupService salesRollupService;
+
+    @GetMapping("/daily")
+    public List<DailySalesDTO> daily(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<OrderStatus> status) {
+        return salesRollupService.findDailySales(from, to, status);
+    }
+
+    @GetMapping("/products")
+    public List<ProductSalesDTO> products(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<OrderStatus> status) {
+        return salesRollupService.findProductSales(from, to, status);
+    }
+
+    @GetMapping("/statuses")
+    public List<StatusSalesDTO> statuses(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return salesRollupService.findStatusSales(from, to);
+    }
+
+    // Devuelve el número de días reconstruidos
+    @PostMapping("/rebuild")
+    public int rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return salesRollupService.rebuild(from, to);
+    }
+}
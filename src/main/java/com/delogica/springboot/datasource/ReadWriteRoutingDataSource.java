@@ -0,0 +1,49 @@
+package com.delogica.springboot.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource que envía las transacciones readOnly a una réplica y todo lo
+ * demás (escrituras, transacciones de lectura-escritura y accesos sin
+ * transacción) a la principal
+ * Debe envolverse en un LazyConnectionDataSourceProxy: el gestor de
+ * transacciones pide la conexión antes de marcar la transacción como readOnly,
+ * y el proxy retrasa la elección hasta la primera sentencia
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaPool replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+
+    DataSource target() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            DataSource replica = replicas.next();
+            if (replica != null) {
+                return replica;
+            }
+        }
+        return primary;
+    }
+}
@@ -0,0 +1,130 @@
+package com.delogica.springboot.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Conjunto de réplicas de lectura con reparto round-robin
+ * Una tarea periódica mide el retraso de cada réplica con la consulta
+ * configurada; las que no responden, no informan de su retraso (replicación
+ * detenida) o superan el máximo quedan fuera del reparto hasta la siguiente
+ * comprobación correcta
+ * Si no queda ninguna disponible, next() devuelve null y las lecturas van a
+ * la principal
+ */
+@Slf4j
+public class ReplicaPool implements AutoCloseable {
+
+    private static final String SECONDS_BEHIND_COLUMN = "seconds_behind_source";
+
+    private final List<DataSource> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private volatile List<DataSource> available;
+
+    public ReplicaPool(List<DataSource> replicas, Duration maxLag, String lagQuery, Duration checkInterval) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.available = this.replicas;
+        if (checkInterval != null && !checkInterval.isZero()) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "replica-lag-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = checkInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::refresh, 0, millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Siguiente réplica disponible en orden round-robin, o null si no hay ninguna
+     */
+    public DataSource next() {
+        List<DataSource> current = available;
+        if (current.isEmpty()) {
+            return null;
+        }
+        return current.get(Math.floorMod(cursor.getAndIncrement(), current.size()));
+    }
+
+    public int availableCount() {
+        return available.size();
+    }
+
+    /**
+     * Vuelve a medir el retraso de todas las réplicas y actualiza las disponibles
+     */
+    public void refresh() {
+        List<DataSource> healthy = replicas.stream().filter(this::isHealthy).toList();
+        if (healthy.size() != available.size()) {
+            log.warn("Réplicas de lectura disponibles: {} de {}", healthy.size(), replicas.size());
+        }
+        available = healthy;
+    }
+
+    private boolean isHealthy(DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null) {
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return false;
+                }
+                long seconds = rs.getLong(lagColumn(rs.getMetaData()));
+                return !rs.wasNull() && seconds <= maxLag.toSeconds();
+            }
+        } catch (SQLException e) {
+            log.warn("Réplica de lectura no disponible: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (SECONDS_BEHIND_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Detiene la comprobación periódica y cierra los pools de las réplicas
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("No se pudo cerrar la réplica de lectura: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
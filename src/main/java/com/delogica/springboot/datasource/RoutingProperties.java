@@ -0,0 +1,41 @@
+package com.delogica.springboot.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuración del enrutado de lecturas a réplicas (app.datasource.routing.*)
+ * La BBDD principal sigue configurándose con spring.datasource.*
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class RoutingProperties {
+
+    private boolean enabled;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Retraso máximo admitido; una réplica más retrasada deja de recibir lecturas
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // Cada cuánto se comprueba el retraso de las réplicas
+    private Duration checkInterval = Duration.ofSeconds(2);
+
+    // Consulta que devuelve el retraso en segundos (columna Seconds_Behind_Source o la
+    // primera columna); vacía para comprobar solo que la réplica responde
+    private String lagQuery;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
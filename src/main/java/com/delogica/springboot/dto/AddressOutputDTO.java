@@ -1,8 +1,14 @@
 package com.delogica.springboot.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+// El constructor completo (en el orden de los campos) lo usa la proyección
+// de AddressRepository.findDtosByCustomerId
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class AddressOutputDTO {
 
     private Long id;
@@ -2,9 +2,15 @@ package com.delogica.springboot.dto;
 
 import java.time.LocalDateTime;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+// El constructor completo (en el orden de los campos) lo usa la proyección
+// de CustomerRepository.findAllAsDto
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CustomerOutputDTO {
 	
 	private Long id;
@@ -13,5 +19,7 @@ public class CustomerOutputDTO {
 	private String phone;
 	private LocalDateTime createdAt;
 	private LocalDateTime updatedAt;
+	// Versión para actualizaciones condicionales
+	private Long version;
 
 }
@@ -0,0 +1,19 @@
+package com.delogica.springboot.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesDTO {
+
+	private LocalDate date;
+	private Long orderCount;
+	private BigDecimal revenue;
+
+}
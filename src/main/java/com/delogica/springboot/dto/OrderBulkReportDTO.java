@@ -0,0 +1,15 @@
+package com.delogica.springboot.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class OrderBulkReportDTO {
+
+	private int created;
+	private int failed;
+	private List<OrderBulkResultDTO> results = new ArrayList<>();
+
+}
@@ -0,0 +1,21 @@
+package com.delogica.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBulkResultDTO {
+
+	// Posición del registro en la entrada
+	private int index;
+
+	// Id del pedido creado, null si el registro ha fallado
+	private Long orderId;
+
+	// Motivo del fallo, null si el registro se ha creado
+	private String error;
+
+}
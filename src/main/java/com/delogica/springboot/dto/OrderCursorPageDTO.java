@@ -0,0 +1,21 @@
+package com.delogica.springboot.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCursorPageDTO {
+
+	private List<OrderOutputDTO> content;
+
+	// Cursor opaco para pedir la siguiente página, null si no hay más
+	private String nextCursor;
+
+	private boolean hasNext;
+
+}
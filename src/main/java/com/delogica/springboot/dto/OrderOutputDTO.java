@@ -16,5 +16,7 @@ public class OrderOutputDTO {
     private String status;
     private BigDecimal total;
     private List<OrderItemOutputDTO> items;
+    // Versión para actualizaciones condicionales
+    private Long version;
 
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.delogica.springboot.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class OrderStatusBulkResultDTO {
+
+	// Estado aplicado
+	private String status;
+
+	// Pedidos que han cambiado al estado indicado, en orden de id
+	private List<Long> updated = new ArrayList<>();
+
+	// Pedidos inexistentes o cuyo estado actual no permite la transición, en orden de id
+	private List<Long> rejected = new ArrayList<>();
+
+}
@@ -1,9 +1,15 @@
 package com.delogica.springboot.dto;
 
 import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+// El constructor completo (en el orden de los campos) lo usa la proyección
+// de ProductRepository.findAllAsDto
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductOutputDTO {
 
     private Long id;
@@ -14,4 +20,6 @@ public class ProductOutputDTO {
     private Boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Versión para actualizaciones condicionales
+    private Long version;
 }
@@ -0,0 +1,18 @@
+package com.delogica.springboot.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesDTO {
+
+	private Long productId;
+	private Long units;
+	private BigDecimal revenue;
+
+}
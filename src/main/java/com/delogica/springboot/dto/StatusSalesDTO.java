@@ -0,0 +1,20 @@
+package com.delogica.springboot.dto;
+
+import java.math.BigDecimal;
+
+import com.delogica.springboot.model.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusSalesDTO {
+
+	private OrderStatus status;
+	private Long orderCount;
+	private BigDecimal revenue;
+
+}
@@ -0,0 +1,7 @@
+package com.delogica.springboot.exceptions;
+
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,219 @@
+package com.delogica.springboot.idempotency;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.delogica.springboot.dto.OrderInputDTO;
+import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.exceptions.ResourceAlreadyExistsException;
+import com.delogica.springboot.model.OrderIdempotencyKey;
+import com.delogica.springboot.repository.OrderIdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registro de las claves de idempotencia del alta de pedidos
+ * Cada clave guarda el OrderOutputDTO que se devolvió, de modo que un
+ * reintento se contesta sin validar, mapear ni insertar nada
+ * Las claves son por cliente y guardan la huella SHA-256 de la entrada: una
+ * clave reutilizada con otra petición se rechaza
+ * Dos niveles: un mapa en memoria acotado por tamaño y con caducidad, que
+ * contesta los reintentos de este nodo sin ir a la BBDD, y la tabla
+ * order_idempotency_keys, que hace de registro duradero y compartido entre
+ * nodos y cuya clave primaria serializa las peticiones simultáneas con la
+ * misma clave
+ */
+@Slf4j
+@Component
+public class OrderIdempotencyStore {
+
+    private final OrderIdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<OrderIdempotencyKey.Key, Entry> recent;
+
+    public OrderIdempotencyStore(OrderIdempotencyKeyRepository repository, ObjectMapper objectMapper,
+            @Value("${app.orders.idempotency.ttl:24h}") Duration ttl,
+            @Value("${app.orders.idempotency.max-entries:100000}") long maxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                // Cada entrada caduca cuando su clave, no cuando se cargó en memoria
+                .expireAfter(Expiry.writing((OrderIdempotencyKey.Key key, Entry entry) -> entry.remaining(ttl)))
+                .build();
+    }
+
+    /**
+     * Huella de la entrada de un alta: SHA-256 en hexadecimal de su JSON
+     *
+     * @param input DTO de entrada del alta
+     * @return huella que se guarda y se compara junto a la clave
+     * @throws IllegalArgumentException si la entrada no se puede serializar
+     */
+    public String requestHash(OrderInputDTO input) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(input));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se puede serializar la entrada del pedido", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Busca la respuesta de un alta anterior con la misma clave del mismo
+     * cliente: primero en memoria y, si no está, por clave primaria en la BBDD
+     * Una fila caducada que aún no se ha purgado se borra y cuenta como ausente
+     *
+     * @param key         cliente y clave de idempotencia
+     * @param requestHash huella de la entrada de esta petición (ver requestHash)
+     * @return el pedido devuelto la primera vez, o vacío si la clave está libre
+     *         o su alta aún no se ha confirmado
+     * @throws ResourceAlreadyExistsException si la clave se usó con otra entrada
+     */
+    public Optional<OrderOutputDTO> find(OrderIdempotencyKey.Key key, String requestHash) {
+        Entry cached = recent.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached.matching(key, requestHash));
+        }
+
+        Optional<OrderIdempotencyKey> stored = repository.findById(key);
+        if (stored.isEmpty() || stored.get().getResponse() == null) {
+            return Optional.empty();
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        if (stored.get().getCreatedAt().isBefore(cutoff)) {
+            repository.deleteExpired(key.getCustomerId(), key.getIdempotencyKey(), cutoff);
+            return Optional.empty();
+        }
+
+        Entry entry = new Entry(stored.get().getRequestHash(), stored.get().getCreatedAt(), read(stored.get()));
+        recent.put(key, entry);
+        return Optional.of(entry.matching(key, requestHash));
+    }
+
+    /**
+     * Reserva la clave insertando su fila en la transacción en curso
+     * Si otra transacción la ha reservado y no ha terminado, el INSERT espera a
+     * que termine; si esa otra confirma, falla
+     *
+     * @param key         cliente y clave de idempotencia
+     * @param requestHash huella de la entrada de esta petición
+     * @return la fila reservada, que se completa con complete
+     * @throws DuplicateKeyException si la clave ya está reservada
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OrderIdempotencyKey claim(OrderIdempotencyKey.Key key, String requestHash) {
+        try {
+            return repository.saveAndFlush(new OrderIdempotencyKey(key, requestHash));
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateKeyException("Clave de idempotencia ya utilizada: " + key.getIdempotencyKey(), e);
+        }
+    }
+
+    /**
+     * Guarda la respuesta en la fila reservada; al confirmar la transacción se
+     * añade también al mapa en memoria
+     *
+     * @param claim fila devuelta por claim en esta misma transacción
+     * @param order pedido creado
+     * @throws IllegalArgumentException si el pedido no se puede serializar
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(OrderIdempotencyKey claim, OrderOutputDTO order) {
+        claim.setOrderId(order.getOrderId());
+        try {
+            claim.setResponse(objectMapper.writeValueAsString(order));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se puede serializar el pedido con id: " + order.getOrderId(), e);
+        }
+        OrderIdempotencyKey.Key key = claim.getId();
+        Entry entry = new Entry(claim.getRequestHash(), claim.getCreatedAt(), order);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recent.put(key, entry);
+            }
+        });
+    }
+
+    /**
+     * Borra las claves caducadas de la BBDD; el mapa en memoria caduca solo
+     * Solo se ejecuta con la planificación activada (app.scheduling.enabled,
+     * ver SchedulingConfig), independiente del relay del outbox
+     */
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval:1h}")
+    public void purgeExpired() {
+        int purged = repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (purged > 0) {
+            log.debug("Purgadas {} claves de idempotencia caducadas", purged);
+        }
+    }
+
+    /**
+     * Cuánto le queda en memoria a la clave indicada (para pruebas)
+     *
+     * @param key cliente y clave de idempotencia
+     * @return tiempo hasta su caducidad, o vacío si no está en memoria
+     */
+    Optional<Duration> localExpiry(OrderIdempotencyKey.Key key) {
+        return recent.policy().expireVariably()
+                .flatMap(policy -> policy.getExpiresAfter(key));
+    }
+
+    /**
+     * Vacía el mapa en memoria (las claves siguen en la BBDD)
+     */
+    public void clearLocal() {
+        recent.invalidateAll();
+    }
+
+    private OrderOutputDTO read(OrderIdempotencyKey stored) {
+        try {
+            return objectMapper.readValue(stored.getResponse(), OrderOutputDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(
+                    "Respuesta ilegible para la clave de idempotencia: " + stored.getIdempotencyKey(), e);
+        }
+    }
+
+    // Respuesta confirmada junto a la huella de la entrada que la produjo y la
+    // fecha de reserva de la clave, de la que se cuenta la caducidad
+    private record Entry(String requestHash, LocalDateTime createdAt, OrderOutputDTO response) {
+
+        Duration remaining(Duration ttl) {
+            Duration remaining = Duration.between(LocalDateTime.now(), createdAt.plus(ttl));
+            return remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+
+        OrderOutputDTO matching(OrderIdempotencyKey.Key key, String hash) {
+            if (!requestHash.equals(hash)) {
+                throw new ResourceAlreadyExistsException(
+                        "Clave de idempotencia ya utilizada con otra petición: " + key.getIdempotencyKey());
+            }
+            return response;
+        }
+    }
+}
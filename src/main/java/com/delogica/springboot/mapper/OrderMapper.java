@@ -14,6 +14,7 @@ public interface OrderMapper {
 
    // ENTRADA: no tocar el id, lo genera la BBDD
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(source = "customerId", target = "customer.id")
     @Mapping(source = "addressId", target = "shippingAddress.id")
     Order toEntity(OrderInputDTO dto);
@@ -0,0 +1,104 @@
+package com.delogica.springboot.membership;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Filtro de Bloom concurrente sobre los emails normalizados de los clientes
+ * Un "no contiene" es definitivo y evita consultar la BBDD en el alta; un
+ * "puede contener" obliga a comprobarlo con el índice único
+ * No admite bajas: los emails borrados o cambiados quedan como falsos
+ * positivos hasta el siguiente arranque, lo que solo cuesta una consulta
+ * Hasta que termina la carga inicial responde siempre "puede contener"
+ * Los duplicados los detecta en última instancia la restricción única, ya que
+ * otras instancias de la aplicación no actualizan este filtro
+ */
+@Component
+public class CustomerEmailFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean loaded;
+
+    public CustomerEmailFilter(
+            @Value("${app.customers.email-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${app.customers.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Configuración del filtro de emails no válida");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        long h1 = mix(fnv(email));
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << (bit & 63);
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+    }
+
+    public boolean mightContain(String email) {
+        if (!loaded || email == null) {
+            return true;
+        }
+        long h1 = mix(fnv(email));
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Marca el fin de la carga inicial: a partir de aquí los "no contiene" son fiables
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    public void clear() {
+        loaded = false;
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0);
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // ===== Auxiliares =====
+
+    // FNV-1a de 64 bits sobre los caracteres del texto
+    private static long fnv(String text) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // Finalizador de MurmurHash3: reparte los bits para derivar las k posiciones
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB93FE53E63A3L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
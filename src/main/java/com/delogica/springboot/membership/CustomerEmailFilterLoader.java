@@ -0,0 +1,40 @@
+package com.delogica.springboot.membership;
+
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.delogica.springboot.repository.CustomerRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Carga el filtro de emails de clientes al arrancar la aplicación,
+ * leyendo solo la columna normalizada por bloques de fetch size
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerEmailFilterLoader {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerEmailFilter customerEmailFilter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long count = 0;
+        try (Stream<String> emails = customerRepository.streamEmailsNormalized()) {
+            for (String email : (Iterable<String>) emails::iterator) {
+                customerEmailFilter.put(email);
+                count++;
+            }
+        }
+        customerEmailFilter.markLoaded();
+        log.info("Filtro de emails de clientes cargado con {} emails", count);
+    }
+}
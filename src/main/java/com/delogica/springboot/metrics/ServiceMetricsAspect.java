@@ -0,0 +1,107 @@
+package com.delogica.springboot.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import com.delogica.springboot.exceptions.NotFoundException;
+import com.delogica.springboot.exceptions.ResourceAlreadyExistsException;
+import com.delogica.springboot.exceptions.ServiceUnavailableException;
+import com.delogica.springboot.exceptions.VersionConflictException;
+import com.delogica.springboot.model.OrderStatus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mide cada método público de los servicios con un timer "service.method"
+ * Se ejecuta por fuera del proxy transaccional, de modo que el tiempo incluye
+ * el commit; el desglose por repositorio lo aportan los timers
+ * spring.data.repository.invocations y las métricas de Hibernate e Hikari
+ * Etiquetas: service, method, outcome (un valor de Outcome) y status (el
+ * OrderStatus recibido como argumento, o "none"); todas toman un conjunto
+ * fijo de valores, y cada combinación registra su timer una sola vez
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "service.method";
+
+    /**
+     * Resultado de la llamada, agrupando las excepciones por su significado
+     */
+    public enum Outcome {
+        SUCCESS, NOT_FOUND, CONFLICT, CLIENT_ERROR, UNAVAILABLE, SERVER_ERROR;
+
+        static Outcome of(Throwable e) {
+            if (e instanceof NotFoundException || e instanceof EntityNotFoundException) {
+                return NOT_FOUND;
+            }
+            if (e instanceof VersionConflictException || e instanceof ResourceAlreadyExistsException
+                    || e instanceof ConcurrencyFailureException) {
+                return CONFLICT;
+            }
+            if (e instanceof ConstraintViolationException || e instanceof IllegalArgumentException
+                    || e instanceof IllegalStateException
+                    || e instanceof com.delogica.springboot.exceptions.IllegalStateException) {
+                return CLIENT_ERROR;
+            }
+            if (e instanceof ServiceUnavailableException) {
+                return UNAVAILABLE;
+            }
+            return SERVER_ERROR;
+        }
+    }
+
+    private record TimerKey(Class<?> service, String method, Outcome outcome, String status) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("within(com.delogica.springboot.service.impl..*) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint pjp) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Outcome outcome = Outcome.SUCCESS;
+        try {
+            return pjp.proceed();
+        } catch (Throwable e) {
+            outcome = Outcome.of(e);
+            throw e;
+        } finally {
+            sample.stop(timerFor(new TimerKey(pjp.getSignature().getDeclaringType(),
+                    pjp.getSignature().getName(), outcome, statusOf(pjp.getArgs()))));
+        }
+    }
+
+    private Timer timerFor(TimerKey key) {
+        return timers.computeIfAbsent(key, k -> Timer.builder(METRIC_NAME)
+                .tag("service", k.service().getSimpleName())
+                .tag("method", k.method())
+                .tag("outcome", k.outcome().name())
+                .tag("status", k.status())
+                .register(meterRegistry));
+    }
+
+    private static String statusOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof OrderStatus status) {
+                return status.name();
+            }
+        }
+        return "none";
+    }
+}
@@ -3,10 +3,14 @@ package com.delogica.springboot.model;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,27 +18,41 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name="customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer")
+@Table(name="customers", uniqueConstraints = @UniqueConstraint(name = Customer.EMAIL_CONSTRAINT, columnNames = "email_normalized"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Customer {
 
+	public static final String EMAIL_CONSTRAINT = "uk_customers_email";
+
 	@Id
-	@GeneratedValue(strategy=GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+	@SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 20)
 	private Long id;
+
+	@Version
+	private Long version;
 	
 	@Column(name="fullname", nullable = false)
 	private String fullName;
@@ -42,6 +60,12 @@ public class Customer {
 	@Email
 	@NotBlank
 	private String email;
+
+	// Email en minúsculas y sin espacios, mantenido al persistir: el índice único
+	// sobre esta columna detecta duplicados sin depender de la collation de la BBDD
+	@Setter(AccessLevel.NONE)
+	@Column(name = "email_normalized", nullable = false)
+	private String emailNormalized;
 	
 	@Column(unique = true, nullable = false)
 	@Size(min = 6, max = 6, message = "El teléfono debe tener exactamente 6 dígitos")
@@ -56,5 +80,15 @@ public class Customer {
 	
 	@OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Address> addresses = new ArrayList<>();
+
+	@PrePersist
+	@PreUpdate
+	void syncEmailNormalized() {
+		emailNormalized = normalizeEmail(email);
+	}
+
+	public static String normalizeEmail(String email) {
+		return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+	}
 	
 }
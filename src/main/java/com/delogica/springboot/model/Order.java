@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -19,7 +21,9 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -35,9 +39,16 @@ import lombok.Setter;
 public class Order {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO) // puedes cambiar a IDENTITY/SEQUENCE según tu BBDD
+	// Secuencia con optimizador pooled (en MySQL se emula con tabla): reserva bloques de ids
+	// sin un round-trip por fila y permite agrupar los INSERT en lotes JDBC
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+	@SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
 	private Long id;
 
+	// Bloqueo optimista: cada UPDATE comprueba e incrementa la versión
+	@Version
+	private Long version;
+
 	@ManyToOne(fetch = jakarta.persistence.FetchType.LAZY)
 	@JoinColumn(name = "customer_id", nullable = false)
 	private Customer customer;
@@ -48,13 +59,17 @@ public class Order {
 
 	private LocalDateTime orderDate;
 
+	private LocalDateTime updatedAt;
+
 	@Enumerated(EnumType.STRING)
 	private OrderStatus status;
 
 	@Column(precision = 19, scale = 2, nullable = false)
 	private BigDecimal total = BigDecimal.ZERO;
 
+	// BatchSize: al recorrer varios pedidos cargados, sus ítems se leen por lotes con IN
 	@OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+	@BatchSize(size = 100)
 	private List<OrderItem> items = new ArrayList<>();
 
 	// Hooks de ciclo de vida 
@@ -68,6 +83,7 @@ public class Order {
 
 	@PreUpdate
 	protected void onUpdate() {
+		updatedAt = LocalDateTime.now();
 		recomputeTotal();
 		bindItemsBackref();
 	}
@@ -94,7 +110,7 @@ public class Order {
 		}
 	}
 
-	private void recomputeTotal() {
+	public void recomputeTotal() {
 		if (items == null || items.isEmpty()) {
 			total = BigDecimal.ZERO;
 			return;
@@ -105,36 +121,25 @@ public class Order {
 				.reduce(BigDecimal.ZERO, BigDecimal::add);
 	}
 
+	// La colección de ítems es inversa: editarla no ensucia el pedido. Actualizar
+	// la marca lo ensucia, así el UPDATE incrementa la versión una sola vez
+	// (cualquier otro UPDATE la fija en onUpdate)
+	public void markModified() {
+		updatedAt = LocalDateTime.now();
+	}
+
+	// Reglas de transición en OrderStatusTransitions
 	public void changeStatus(OrderStatus next) {
-    if (next == null) throw new IllegalArgumentException("El estado no puede ser null");
-    if (this.status == next) return; 
-
-    switch (this.status) {
-        case CREATED -> {
-            // Válidas: CREATED → PAID → SHIPPED y CREATED → CANCELLED
-            if (next != OrderStatus.PAID && next != OrderStatus.CANCELLED) {
-                throw new IllegalStateException("Transición no válida desde CREATED a " + next);
-            }
-        }
-        case PAID -> {
-            // Válidas: PAID → SHIPPED y PAID → CANCELLED solo si no se ha enviado
-            // Si hubiera un flag/fecha de envío adicional, aquí lo comprobarías
-            if (next != OrderStatus.SHIPPED && next != OrderStatus.CANCELLED) {
-                throw new IllegalStateException("Transición no válida desde PAID a " + next);
-            }
-        }
-        case SHIPPED -> {
-            // No se permite cancelar ni otros cambios tras SHIPPED
-            throw new IllegalStateException("No se permiten transiciones desde SHIPPED");
-        }
-        case CANCELLED -> {
-            // Un pedido cancelado no cambia de estado
-            throw new IllegalStateException("No se permiten transiciones desde CANCELLED");
-        }
-        default -> throw new IllegalStateException("Estado actual desconocido: " + this.status);
-    }
-
-    this.status = next;
-}
+		if (next == null) throw new IllegalArgumentException("El estado no puede ser null");
+		if (this.status == next) return;
+
+		if (this.status == null) throw new IllegalStateException("Estado actual desconocido");
+		if (OrderStatusTransitions.isFinal(this.status))
+			throw new IllegalStateException("No se permiten transiciones desde " + this.status);
+		if (!OrderStatusTransitions.isAllowed(this.status, next))
+			throw new IllegalStateException("Transición no válida desde " + this.status + " a " + next);
+
+		this.status = next;
+	}
 
 }
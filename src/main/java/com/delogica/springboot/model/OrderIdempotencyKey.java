@@ -0,0 +1,105 @@
+package com.delogica.springboot.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import org.hibernate.Length;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Clave de idempotencia de un alta de pedido con la respuesta que se devolvió
+ * La clave es única por cliente y guarda la huella de la entrada, para
+ * rechazar que se reutilice con otra petición
+ * El id lo asigna el cliente: implementa Persistable para que save haga un
+ * INSERT directo en lugar de un SELECT previo para decidir entre alta y merge
+ */
+@Entity
+@Table(name = "order_idempotency_keys")
+@IdClass(OrderIdempotencyKey.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderIdempotencyKey implements Persistable<OrderIdempotencyKey.Key> {
+
+	public static final int MAX_KEY_LENGTH = 100;
+
+	@Id
+	@Column(name = "customer_id")
+	private Long customerId;
+
+	@Id
+	@Column(name = "idempotency_key", length = MAX_KEY_LENGTH)
+	private String idempotencyKey;
+
+	// SHA-256 en hexadecimal de la entrada
+	@Column(length = 64, nullable = false)
+	private String requestHash;
+
+	// Vacíos mientras el alta que reservó la clave está en curso
+	private Long orderId;
+
+	// OrderOutputDTO devuelto, en JSON
+	@Column(length = Length.LONG32)
+	private String response;
+
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+
+	@Transient
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private boolean isNew = true;
+
+	public OrderIdempotencyKey(Key key, String requestHash) {
+		this.customerId = key.getCustomerId();
+		this.idempotencyKey = key.getIdempotencyKey();
+		this.requestHash = requestHash;
+	}
+
+	@Override
+	public Key getId() {
+		return new Key(customerId, idempotencyKey);
+	}
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PrePersist
+	protected void onCreate() {
+		if (createdAt == null)
+			createdAt = LocalDateTime.now();
+	}
+
+	@PostLoad
+	@PostPersist
+	protected void markNotNew() {
+		isNew = false;
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+		private Long customerId;
+		private String idempotencyKey;
+	}
+
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -24,7 +25,8 @@ import lombok.Setter;
 public class OrderItem {
 	
 	 @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_items_seq")
+    @SequenceGenerator(name = "orders_items_seq", sequenceName = "orders_items_seq", allocationSize = 200)
     private Long id;
 
     @ManyToOne(fetch = jakarta.persistence.FetchType.LAZY)
@@ -0,0 +1,61 @@
+package com.delogica.springboot.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grafo de transiciones de estado de un pedido
+ * La tabla es la única fuente de las reglas: la usan tanto Order.changeStatus
+ * (un pedido en memoria) como los cambios masivos, que la invierten para
+ * filtrar en el UPDATE por los estados de origen permitidos
+ */
+public final class OrderStatusTransitions {
+
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        // CREATED → PAID → SHIPPED, y cancelación mientras no se haya enviado
+        allow(OrderStatus.CREATED, OrderStatus.PAID, OrderStatus.CANCELLED);
+        allow(OrderStatus.PAID, OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+        // SHIPPED y CANCELLED son estados finales
+        allow(OrderStatus.SHIPPED);
+        allow(OrderStatus.CANCELLED);
+
+        for (OrderStatus target : OrderStatus.values()) {
+            SOURCES.putIfAbsent(target, EnumSet.noneOf(OrderStatus.class));
+        }
+        ALLOWED.forEach((source, targets) -> targets.forEach(target -> SOURCES.get(target).add(source)));
+        SOURCES.replaceAll((target, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    private OrderStatusTransitions() {
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... to) {
+        Set<OrderStatus> targets = EnumSet.noneOf(OrderStatus.class);
+        Collections.addAll(targets, to);
+        ALLOWED.put(from, Collections.unmodifiableSet(targets));
+    }
+
+    public static boolean isAllowed(OrderStatus from, OrderStatus to) {
+        return ALLOWED.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    public static boolean isFinal(OrderStatus status) {
+        return ALLOWED.getOrDefault(status, Set.of()).isEmpty();
+    }
+
+    // Estados a los que se puede pasar desde el indicado
+    public static Set<OrderStatus> targetsOf(OrderStatus from) {
+        return ALLOWED.getOrDefault(from, Set.of());
+    }
+
+    // Estados desde los que se puede llegar al indicado
+    public static Set<OrderStatus> sourcesOf(OrderStatus to) {
+        return SOURCES.get(to);
+    }
+}
@@ -0,0 +1,61 @@
+package com.delogica.springboot.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.Length;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Evento pendiente de publicar (patrón outbox)
+ * Se inserta en la misma transacción que el cambio que lo origina, de modo que
+ * o se confirman ambos o ninguno; el relay lo publica y lo borra después
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+	@SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(nullable = false, length = 50)
+	private String aggregateType;
+
+	@Column(nullable = false)
+	private Long aggregateId;
+
+	@Column(nullable = false, length = 50)
+	private String eventType;
+
+	// Estado del agregado tras el cambio, en JSON
+	// Texto largo (longtext en MySQL): un @Lob String sin longitud se quedaba en tinytext (255 bytes)
+	@Column(nullable = false, length = Length.LONG32)
+	private String payload;
+
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+
+	@PrePersist
+	protected void onCreate() {
+		if (createdAt == null)
+			createdAt = LocalDateTime.now();
+	}
+
+}
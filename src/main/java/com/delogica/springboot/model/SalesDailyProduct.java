@@ -0,0 +1,63 @@
+package com.delogica.springboot.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Agregado diario de ventas por producto y estado del pedido: unidades e
+ * importe de las líneas
+ * El producto se guarda como id, sin relación, para no cruzar con products al
+ * consultar
+ */
+@Entity
+@Table(name = "sales_daily_product")
+@IdClass(SalesDailyProduct.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDailyProduct {
+
+	@Id
+	@Column(name = "sales_date")
+	private LocalDate salesDate;
+
+	@Id
+	@Column(name = "product_id")
+	private Long productId;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20)
+	private OrderStatus status;
+
+	@Column(nullable = false)
+	private long units;
+
+	@Column(precision = 19, scale = 2, nullable = false)
+	private BigDecimal revenue = BigDecimal.ZERO;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+		private LocalDate salesDate;
+		private Long productId;
+		private OrderStatus status;
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.delogica.springboot.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Agregado diario de pedidos por estado: número de pedidos e importe
+ * Se mantiene de forma incremental al crear, modificar o cambiar de estado un
+ * pedido, y se puede reconstruir desde orders para un rango de días
+ */
+@Entity
+@Table(name = "sales_daily_status")
+@IdClass(SalesDailyStatus.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDailyStatus {
+
+	@Id
+	@Column(name = "sales_date")
+	private LocalDate salesDate;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20)
+	private OrderStatus status;
+
+	@Column(nullable = false)
+	private long orderCount;
+
+	@Column(precision = 19, scale = 2, nullable = false)
+	private BigDecimal revenue = BigDecimal.ZERO;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+		private LocalDate salesDate;
+		private OrderStatus status;
+	}
+
+}
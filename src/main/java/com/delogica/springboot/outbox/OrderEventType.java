@@ -0,0 +1,28 @@
+package com.delogica.springboot.outbox;
+
+import com.delogica.springboot.model.OrderStatus;
+
+/**
+ * Tipos de evento del ciclo de vida de un pedido publicados por el outbox
+ */
+public enum OrderEventType {
+
+    ORDER_CREATED,
+    ORDER_UPDATED,
+    ORDER_PAID,
+    ORDER_SHIPPED,
+    ORDER_CANCELLED;
+
+    /**
+     * Evento que corresponde a la llegada de un pedido al estado indicado, o
+     * null si ese estado no se publica
+     */
+    public static OrderEventType forStatus(OrderStatus status) {
+        return switch (status) {
+            case PAID -> ORDER_PAID;
+            case SHIPPED -> ORDER_SHIPPED;
+            case CANCELLED -> ORDER_CANCELLED;
+            default -> null;
+        };
+    }
+}
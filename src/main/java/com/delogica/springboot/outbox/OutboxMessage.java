@@ -0,0 +1,18 @@
+package com.delogica.springboot.outbox;
+
+import java.time.LocalDateTime;
+
+import com.delogica.springboot.model.OutboxEvent;
+
+/**
+ * Evento tal y como se entrega a los sinks, desacoplado de la entidad
+ * El id es creciente y sirve a los consumidores para descartar duplicados
+ */
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType, String payload,
+        LocalDateTime createdAt) {
+
+    public static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,105 @@
+package com.delogica.springboot.outbox;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.delogica.springboot.model.OutboxEvent;
+import com.delogica.springboot.repository.OutboxEventRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Vacía el outbox hacia los sinks configurados
+ * Cada lote se lee en orden de id, se entrega a todos los sinks y se borra con
+ * un único DELETE, todo en una transacción: si un sink falla, el lote sigue en
+ * la tabla y se reintenta en la siguiente pasada
+ * Como los eventos se borran en lugar de avanzar una marca de agua, un evento
+ * con id menor confirmado tarde se publica en la pasada siguiente y no se pierde
+ * Pensado para una sola instancia activa; con varias, los lotes pueden
+ * solaparse y publicarse dos veces
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean enabled;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxSink> sinks,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.outbox.batch-size}") int batchSize,
+            @Value("${app.outbox.relay.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Pasada programada: vacía el outbox salvo con app.outbox.relay.enabled=false,
+     * p. ej. en las instancias que no deben publicar
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms}")
+    public void drainOnSchedule() {
+        if (enabled) {
+            drain();
+        }
+    }
+
+    /**
+     * Publica lotes hasta dejar el outbox vacío
+     *
+     * @return número de eventos publicados
+     */
+    public int drain() {
+        if (sinks.isEmpty()) {
+            return 0;
+        }
+        int total = 0;
+        int relayed;
+        do {
+            relayed = relayBatch();
+            total += relayed;
+        } while (relayed == batchSize);
+        return total;
+    }
+
+    /**
+     * Publica y borra un lote de eventos
+     *
+     * @return número de eventos publicados
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<OutboxMessage> messages = events.stream().map(OutboxMessage::of).toList();
+            for (OutboxSink sink : sinks) {
+                try {
+                    sink.publish(messages);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Error al publicar eventos del outbox en "
+                            + sink.getClass().getSimpleName(), e);
+                }
+            }
+            outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+            return events.size();
+        });
+        if (relayed > 0) {
+            log.debug("Publicados {} eventos del outbox", relayed);
+        }
+        return relayed;
+    }
+}
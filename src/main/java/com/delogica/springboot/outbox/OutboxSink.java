@@ -0,0 +1,21 @@
+package com.delogica.springboot.outbox;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos del outbox (broker, fichero, webhook...)
+ * Cada bean que implemente esta interfaz recibe todos los lotes
+ * La entrega es al menos una vez: si publish lanza una excepción el lote se
+ * reintenta entero, también para los sinks que ya lo habían recibido
+ */
+public interface OutboxSink {
+
+    /**
+     * Publica un lote de eventos en orden de id
+     *
+     * @param messages eventos a publicar, nunca vacío
+     * @throws Exception si el lote no se ha podido publicar
+     */
+    void publish(List<OutboxMessage> messages) throws Exception;
+
+}
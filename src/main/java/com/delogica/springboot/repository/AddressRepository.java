@@ -3,27 +3,70 @@ package com.delogica.springboot.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.delogica.springboot.dto.AddressOutputDTO;
 import com.delogica.springboot.model.Address;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface AddressRepository extends JpaRepository<Address, Long> {
 
-    // Listar direcciones de un cliente
+    // Espacio de consulta propio de los borrados nativos: al no coincidir con la
+    // tabla addresses, Hibernate no vacía la región "address" entera en cada borrado
+    String DELETE_QUERY_SPACE = "address_delete";
 
-    List<Address> findByCustomerId(Long customerId);
+    // Las consultas por cliente filtran por a.customer.id (la clave foránea): la versión
+    // derivada del nombre añade un join a customers y no aprovecha ix_addresses_customer_default
+
+    // Listar direcciones de un cliente
+    @Query("select a from Address a where a.customer.id = :customerId")
+    List<Address> findByCustomerId(@Param("customerId") Long customerId);
 
     // Buscar dirección por si es default
+    @Query("select a from Address a where a.customer.id = :customerId and a.isDefault = true")
+    List<Address> findByCustomerIdAndIsDefaultTrue(@Param("customerId") Long customerId);
+
+    @Query("select a from Address a where a.customer.id = :customerId")
+    Page<Address> findAllByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    // Listado paginado directamente en DTO, sin entidades gestionadas ni mapeo posterior
+    String DTO_QUERY = "select new com.delogica.springboot.dto.AddressOutputDTO(a.id, a.line1, a.line2, a.city,"
+            + " a.postalCode, a.country, a.isDefault, a.customer.id) from Address a where a.customer.id = :customerId";
+
+    @Query(value = DTO_QUERY, countQuery = "select count(a) from Address a where a.customer.id = :customerId")
+    Page<AddressOutputDTO> findDtosByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    // Misma proyección sin count: lee size + 1 filas para saber si hay más
+    @Query(DTO_QUERY)
+    Slice<AddressOutputDTO> sliceDtosByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
 
-    List<Address> findByCustomerIdAndIsDefaultTrue(Long customerId);
+    @Query("select count(a) from Address a where a.customer.id = :customerId")
+    long countByCustomerId(@Param("customerId") Long customerId);
 
-    Page<Address> findAllByCustomerId(Long customerId, Pageable pageable);
+    @Query("select a from Address a where a.id = :addressId and a.customer.id = :customerId")
+    Optional<Address> findByIdAndCustomerId(@Param("addressId") Long addressId, @Param("customerId") Long customerId);
 
-    Optional<Address> findByIdAndCustomerId(Long addressId, Long customerId);
+    // Solo el indicador de predeterminada, para distinguir por qué no se ha podido borrar
+    @Query("select coalesce(a.isDefault, false) from Address a where a.id = :addressId and a.customer.id = :customerId")
+    Optional<Boolean> findIsDefaultByIdAndCustomerId(@Param("addressId") Long addressId,
+            @Param("customerId") Long customerId);
 
-    long deleteByIdAndCustomerId(Long addressId, Long customerId);
+    // Borra la dirección si es del cliente y no es la predeterminada, en una sola
+    // sentencia por clave primaria (devuelve filas afectadas)
+    @Modifying
+    @Query(value = "delete from addresses where id = :addressId and customer_id = :customerId"
+            + " and (is_default is null or is_default = false)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = DELETE_QUERY_SPACE))
+    int deleteNonDefaultByIdAndCustomerId(@Param("addressId") Long addressId, @Param("customerId") Long customerId);
 }
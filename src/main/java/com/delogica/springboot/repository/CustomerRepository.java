@@ -1,14 +1,47 @@
 package com.delogica.springboot.repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.delogica.springboot.dto.CustomerOutputDTO;
 import com.delogica.springboot.model.Customer;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
-	Optional<Customer> findByEmail(String email);
+	// Listado paginado directamente en DTO, sin entidades gestionadas ni mapeo posterior
+	String DTO_QUERY = "select new com.delogica.springboot.dto.CustomerOutputDTO(c.id, c.fullName, c.email, c.phone,"
+			+ " c.createdAt, c.updatedAt, c.version) from Customer c";
+
+	@Query(value = DTO_QUERY, countQuery = "select count(c) from Customer c")
+	Page<CustomerOutputDTO> findAllAsDto(Pageable pageable);
+
+	// Misma proyección sin count: lee size + 1 filas para saber si hay más
+	@Query(DTO_QUERY)
+	Slice<CustomerOutputDTO> sliceAllAsDto(Pageable pageable);
+
+	// Búsquedas por el email normalizado (Customer.normalizeEmail), cubiertas por el índice único
+	Optional<Customer> findByEmailNormalized(String emailNormalized);
+
+	boolean existsByEmailNormalized(String emailNormalized);
+
+	boolean existsByEmailNormalizedAndIdNot(String emailNormalized, Long id);
+
+	// Lectura secuencial de los emails para cargar el filtro de duplicados al arrancar
+	@QueryHints({
+			@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_CACHEABLE, value = "false")
+	})
+	@Query("select c.emailNormalized from Customer c")
+	Stream<String> streamEmailsNormalized();
 }
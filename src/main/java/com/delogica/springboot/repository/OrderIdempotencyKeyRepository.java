@@ -0,0 +1,31 @@
+package com.delogica.springboot.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.delogica.springboot.model.OrderIdempotencyKey;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, OrderIdempotencyKey.Key> {
+
+    // Libera una clave caducada que aún no ha purgado el proceso periódico
+    @Modifying
+    @Transactional
+    @Query("delete from OrderIdempotencyKey k where k.customerId = :customerId and k.idempotencyKey = :key"
+            + " and k.createdAt < :cutoff")
+    int deleteExpired(@Param("customerId") Long customerId, @Param("key") String key,
+            @Param("cutoff") LocalDateTime cutoff);
+
+    // Purga por rango sobre ix_order_idempotency_keys_created (devuelve filas borradas)
+    @Modifying
+    @Transactional
+    @Query("delete from OrderIdempotencyKey k where k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+}
@@ -1,15 +1,24 @@
 package com.delogica.springboot.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.delogica.springboot.model.OrderItem;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    List<OrderItem> findByOrderId(Long orderId);
+    // Filtra por la clave foránea: la versión derivada añade un join a orders
+    @Query("select i from OrderItem i where i.order.id = :orderId")
+    List<OrderItem> findByOrderId(@Param("orderId") Long orderId);
     
     void deleteByOrderId(Long orderId);
+
+    // Unidades por producto de un conjunto de pedidos: [productId, cantidad]
+    @Query("select i.product.id, sum(i.quantity) from OrderItem i where i.order.id in :orderIds group by i.product.id")
+    List<Object[]> sumQuantitiesByProduct(@Param("orderIds") Collection<Long> orderIds);
 }
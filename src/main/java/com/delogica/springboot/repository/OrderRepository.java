@@ -1,23 +1,152 @@
 package com.delogica.springboot.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.delogica.springboot.model.Order;
+import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.utils.OrderCursors;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long>{
 
+    // Las consultas por cliente filtran por o.customer.id (la clave foránea): la versión
+    // derivada del nombre añade un join a customers y no aprovecha ix_orders_customer_date
+
     // Listar pedidos de un cliente
-    Page<Order> findByCustomerId(Long customerId, Pageable pageable);
+    @Query("select o from Order o where o.customer.id = :customerId")
+    Page<Order> findByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
 
     // Listar pedidos por cliente y rango de fechas
-    Page<Order> findByCustomerIdAndOrderDateBetween(Long customerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query("select o from Order o where o.customer.id = :customerId and o.orderDate between :start and :end")
+    Page<Order> findByCustomerIdAndOrderDateBetween(@Param("customerId") Long customerId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
+
+    // Pedido solo si es del cliente: la comprobación de propiedad va en la misma consulta
+    @Query("select o from Order o where o.id = :orderId and o.customer.id = :customerId")
+    Optional<Order> findByIdAndCustomerId(@Param("orderId") Long orderId, @Param("customerId") Long customerId);
 
     // Listar pedidos por rango de fechas (sin cliente)
     Page<Order> findByOrderDateBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    // ===== Lectura en dos fases: primero la página de ids, luego los pedidos con sus ítems =====
+
+    @Query("select o.id from Order o where o.customer.id = :customerId")
+    Page<Long> findIdsByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query("select o.id from Order o where o.customer.id = :customerId and o.orderDate between :start and :end")
+    Page<Long> findIdsByCustomerIdAndOrderDateBetween(@Param("customerId") Long customerId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
+
+    @Query("select o.id from Order o where o.orderDate between :start and :end")
+    Page<Long> findIdsByOrderDateBetween(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end, Pageable pageable);
+
+    // Mismas consultas de ids sin count: leen size + 1 filas para saber si hay más
+
+    @Query("select o.id from Order o where o.customer.id = :customerId")
+    Slice<Long> sliceIdsByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query("select o.id from Order o where o.customer.id = :customerId and o.orderDate between :start and :end")
+    Slice<Long> sliceIdsByCustomerIdAndOrderDateBetween(@Param("customerId") Long customerId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
+
+    @Query("select o.id from Order o where o.orderDate between :start and :end")
+    Slice<Long> sliceIdsByOrderDateBetween(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end, Pageable pageable);
+
+    // Totales de los listados, para la cuenta cacheada de los servicios
+
+    @Query("select count(o) from Order o where o.customer.id = :customerId")
+    long countByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("select count(o) from Order o where o.customer.id = :customerId and o.orderDate between :start and :end")
+    long countByCustomerIdAndOrderDateBetween(@Param("customerId") Long customerId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("select count(o) from Order o where o.orderDate between :start and :end")
+    long countByOrderDateBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // ===== Paginación por cursor (keyset) sobre (orderDate DESC, id DESC), sin offset ni count =====
+    // Devuelven la clave de orden de cada fila para que el cursor siguiente salga de
+    // la última leída, aunque su pedido se borre antes de cargarlo
+
+    String POSITION = "select new com.delogica.springboot.utils.OrderCursors$Position(o.orderDate, o.id)";
+
+    @Query(POSITION + " from Order o where o.customer.id = :customerId order by o.orderDate desc, o.id desc")
+    List<OrderCursors.Position> findFirstPositionsByCustomerId(@Param("customerId") Long customerId, Limit limit);
+
+    @Query(POSITION + " from Order o where o.customer.id = :customerId"
+            + " and (o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id))"
+            + " order by o.orderDate desc, o.id desc")
+    List<OrderCursors.Position> findPositionsByCustomerIdAfter(@Param("customerId") Long customerId,
+            @Param("orderDate") LocalDateTime orderDate, @Param("id") Long id, Limit limit);
+
+    @Query(POSITION + " from Order o where o.orderDate between :start and :end order by o.orderDate desc, o.id desc")
+    List<OrderCursors.Position> findFirstPositionsByOrderDateBetween(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end, Limit limit);
+
+    @Query(POSITION + " from Order o where o.orderDate between :start and :end"
+            + " and (o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id))"
+            + " order by o.orderDate desc, o.id desc")
+    List<OrderCursors.Position> findPositionsByOrderDateBetweenAfter(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end, @Param("orderDate") LocalDateTime orderDate,
+            @Param("id") Long id, Limit limit);
+
+    @Query(POSITION + " from Order o where o.customer.id = :customerId and o.orderDate between :start and :end"
+            + " order by o.orderDate desc, o.id desc")
+    List<OrderCursors.Position> findFirstPositionsByCustomerIdAndOrderDateBetween(@Param("customerId") Long customerId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Limit limit);
+
+    @Query(POSITION + " from Order o where o.customer.id = :customerId and o.orderDate between :start and :end"
+            + " and (o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id))"
+            + " order by o.orderDate desc, o.id desc")
+    List<OrderCursors.Position> findPositionsByCustomerIdAndOrderDateBetweenAfter(@Param("customerId") Long customerId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+            @Param("orderDate") LocalDateTime orderDate, @Param("id") Long id, Limit limit);
+
+    // Lectura secuencial para exportaciones: solo avance, por bloques de fetch size y sin snapshots de dirty checking
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select o from Order o where o.orderDate between :start and :end order by o.orderDate, o.id")
+    Stream<Order> streamByOrderDateBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Carga los pedidos indicados con sus ítems en una sola consulta (sin orden garantizado)
+    @EntityGraph(attributePaths = { "items" })
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    // ===== Cambios de estado masivos =====
+
+    // Bloquea (SELECT ... FOR UPDATE) y devuelve los pedidos indicados que están en alguno de los estados de origen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id from Order o where o.id in :ids and o.status in :sources")
+    List<Long> lockIdsByIdInAndStatusIn(@Param("ids") Collection<Long> ids,
+            @Param("sources") Collection<OrderStatus> sources);
+
+    @Modifying
+    @Query("update Order o set o.status = :status, o.version = o.version + 1, o.updatedAt = current_timestamp"
+            + " where o.id in :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
 }
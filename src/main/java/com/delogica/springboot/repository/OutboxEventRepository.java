@@ -0,0 +1,17 @@
+package com.delogica.springboot.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.delogica.springboot.model.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Siguiente lote de eventos pendientes en orden de id (recorre la clave primaria)
+    List<OutboxEvent> findAllByOrderByIdAsc(Limit limit);
+
+}
@@ -3,20 +3,59 @@ package com.delogica.springboot.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.delogica.springboot.dto.ProductOutputDTO;
 import com.delogica.springboot.model.Product;
+import com.delogica.springboot.search.ProductSearchRow;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+	// Espacio de consulta propio de las actualizaciones de stock: al no coincidir
+	// con la tabla products, Hibernate no vacía la región "product" entera en cada
+	// reserva; StockServiceImpl expulsa solo los productos tocados
+	String STOCK_QUERY_SPACE = "product_stock";
+
 	Page<Product> findAll(Pageable pageable);
+
+	// Recorrido por keyset para cargar el índice de búsqueda: solo los productos
+	// activos y las columnas indexadas, sin COUNT ni OFFSET y sin hidratar
+	// entidades ni llenar la L2
+	@Query("select new com.delogica.springboot.search.ProductSearchRow(p.id, p.name, p.sku)"
+			+ " from Product p where p.id > :lastId and p.active = true order by p.id")
+	List<ProductSearchRow> findSearchRowsAfter(@Param("lastId") Long lastId, Limit limit);
+
+	// Listado paginado directamente en DTO: sin entidades en el contexto de
+	// persistencia ni en la caché de segundo nivel, y sin mapeo posterior
+	// (el precio se convierte a Double como hace ProductMapper)
+	String DTO_QUERY = "select new com.delogica.springboot.dto.ProductOutputDTO(p.id, p.sku, p.name,"
+			+ " cast(p.price as Double), p.stock, p.active, p.createdAt, p.updatedAt, p.version) from Product p";
+
+	@Query(value = DTO_QUERY, countQuery = "select count(p) from Product p")
+	Page<ProductOutputDTO> findAllAsDto(Pageable pageable);
+
+	// Misma proyección sin count: lee size + 1 filas para saber si hay más
+	@Query(DTO_QUERY)
+	Slice<ProductOutputDTO> sliceAllAsDto(Pageable pageable);
 	
 	  // Buscar productos activos
 	
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "active-products") })
     List<Product> findByActiveTrue();
 
     // Buscar productos por nombre (contenga texto)
@@ -25,4 +64,20 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Optional<Product> findBySku(String sku);
 
+    // Descuenta stock de forma atómica solo si hay suficiente (devuelve filas afectadas)
+    // Incrementa la versión: una escritura de la entidad leída antes falla en lugar
+    // de devolver el stock anterior
+    @Modifying
+    @Query(value = "update products set stock = stock - :quantity, version = version + 1"
+            + " where id = :id and stock >= :quantity", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    int discountStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Devuelve stock de forma atómica (devuelve filas afectadas); también incrementa la versión
+    @Modifying
+    @Query(value = "update products set stock = stock + :quantity, version = version + 1 where id = :id",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
 }
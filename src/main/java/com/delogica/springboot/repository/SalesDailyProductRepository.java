@@ -0,0 +1,70 @@
+package com.delogica.springboot.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.delogica.springboot.dto.ProductSalesDTO;
+import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.model.SalesDailyProduct;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface SalesDailyProductRepository extends JpaRepository<SalesDailyProduct, SalesDailyProduct.Key> {
+
+    // Espacio de consulta de los upserts nativos: solo su tabla. Sin él, Hibernate
+    // vaciaría todas las regiones de la caché de segundo nivel y de consultas en
+    // cada alta, cambio o cambio de estado de un pedido
+    String UPSERT_QUERY_SPACE = "sales_daily_product";
+
+    // Suma (o resta, con valores negativos) al agregado del día, producto y estado, creándolo si no existe
+    @Modifying
+    @Query(value = "insert into sales_daily_product (sales_date, product_id, status, units, revenue) "
+            + "values (:salesDate, :productId, :status, :units, :revenue) "
+            + "on duplicate key update units = units + :units, revenue = revenue + :revenue",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = UPSERT_QUERY_SPACE))
+    int increment(@Param("salesDate") LocalDate salesDate, @Param("productId") Long productId,
+            @Param("status") String status, @Param("units") long units, @Param("revenue") BigDecimal revenue);
+
+    @Modifying
+    @Query("delete from SalesDailyProduct s where s.salesDate between :from and :to")
+    int deleteBySalesDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recalcula desde orders y orders_items los agregados de los pedidos con fecha en [start, end)
+    @Modifying
+    @Query(value = "insert into sales_daily_product (sales_date, product_id, status, units, revenue) "
+            + "select cast(o.order_date as date), i.product_id, o.status, sum(i.quantity), sum(i.quantity * i.unit_price) "
+            + "from orders o join orders_items i on i.order_id = o.id "
+            + "where o.order_date >= :start and o.order_date < :end "
+            + "group by cast(o.order_date as date), i.product_id, o.status",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = UPSERT_QUERY_SPACE))
+    int rebuild(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Aportación actual de un conjunto de pedidos por día, producto y estado:
+    // [día, productId, estado, unidades, importe], en orden de producto
+    @Query("select cast(o.orderDate as LocalDate), i.product.id, o.status, sum(i.quantity), sum(i.quantity * i.unitPrice) "
+            + "from OrderItem i join i.order o where o.id in :orderIds "
+            + "group by cast(o.orderDate as LocalDate), i.product.id, o.status "
+            + "order by i.product.id, cast(o.orderDate as LocalDate), o.status")
+    List<Object[]> contributionsOf(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("select new com.delogica.springboot.dto.ProductSalesDTO(s.productId, sum(s.units), sum(s.revenue)) "
+            + "from SalesDailyProduct s where s.salesDate between :from and :to and s.status in :statuses "
+            + "group by s.productId order by sum(s.revenue) desc, s.productId")
+    List<ProductSalesDTO> sumByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("statuses") Collection<OrderStatus> statuses);
+
+}
@@ -0,0 +1,74 @@
+package com.delogica.springboot.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.delogica.springboot.dto.DailySalesDTO;
+import com.delogica.springboot.dto.StatusSalesDTO;
+import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.model.SalesDailyStatus;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface SalesDailyStatusRepository extends JpaRepository<SalesDailyStatus, SalesDailyStatus.Key> {
+
+    // Espacio de consulta de los upserts nativos: solo su tabla. Sin él, Hibernate
+    // vaciaría todas las regiones de la caché de segundo nivel y de consultas en
+    // cada alta, cambio o cambio de estado de un pedido
+    String UPSERT_QUERY_SPACE = "sales_daily_status";
+
+    // Suma (o resta, con valores negativos) al agregado del día y estado, creándolo si no existe
+    // El upsert es atómico en la BBDD, por lo que pedidos concurrentes del mismo día no pierden incrementos
+    @Modifying
+    @Query(value = "insert into sales_daily_status (sales_date, status, order_count, revenue) "
+            + "values (:salesDate, :status, :orderCount, :revenue) "
+            + "on duplicate key update order_count = order_count + :orderCount, revenue = revenue + :revenue",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = UPSERT_QUERY_SPACE))
+    int increment(@Param("salesDate") LocalDate salesDate, @Param("status") String status,
+            @Param("orderCount") long orderCount, @Param("revenue") BigDecimal revenue);
+
+    @Modifying
+    @Query("delete from SalesDailyStatus s where s.salesDate between :from and :to")
+    int deleteBySalesDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recalcula desde orders los agregados de los pedidos con fecha en [start, end)
+    @Modifying
+    @Query(value = "insert into sales_daily_status (sales_date, status, order_count, revenue) "
+            + "select cast(o.order_date as date), o.status, count(*), sum(o.total) from orders o "
+            + "where o.order_date >= :start and o.order_date < :end "
+            + "group by cast(o.order_date as date), o.status",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = UPSERT_QUERY_SPACE))
+    int rebuild(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Aportación actual de un conjunto de pedidos por día y estado: [día, estado, pedidos, importe]
+    @Query("select cast(o.orderDate as LocalDate), o.status, count(o), sum(o.total) from Order o "
+            + "where o.id in :orderIds group by cast(o.orderDate as LocalDate), o.status "
+            + "order by cast(o.orderDate as LocalDate), o.status")
+    List<Object[]> contributionsOf(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("select new com.delogica.springboot.dto.DailySalesDTO(s.salesDate, sum(s.orderCount), sum(s.revenue)) "
+            + "from SalesDailyStatus s where s.salesDate between :from and :to and s.status in :statuses "
+            + "group by s.salesDate order by s.salesDate")
+    List<DailySalesDTO> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("select new com.delogica.springboot.dto.StatusSalesDTO(s.status, sum(s.orderCount), sum(s.revenue)) "
+            + "from SalesDailyStatus s where s.salesDate between :from and :to "
+            + "group by s.status order by s.status")
+    List<StatusSalesDTO> sumByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+}
@@ -0,0 +1,8 @@
+package com.delogica.springboot.search;
+
+/**
+ * Evento publicado por el servicio de productos tras crear, modificar o
+ * desactivar un producto; los inactivos salen del índice de búsqueda
+ */
+public record ProductChangedEvent(Long productId, String name, String sku, boolean active) {
+}
@@ -0,0 +1,237 @@
+package com.delogica.springboot.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índice invertido en memoria sobre el nombre y el SKU de los productos activos
+ * Normaliza el texto (minúsculas, sin acentos) y lo parte en términos; cada
+ * término se indexa por sus prefijos y por sus trigramas, de modo que una
+ * búsqueda por prefijo o por fragmento interior no recorre la tabla completa
+ * Las lecturas no bloquean; las altas, cambios y bajas se serializan
+ */
+@Component
+public class ProductSearchIndex {
+
+    // Puntuación por término de la consulta según cómo encaja en el producto
+    private static final int EXACT_SCORE = 100;
+    private static final int PREFIX_SCORE = 50;
+    private static final int INFIX_SCORE = 10;
+    // Un término encontrado en el SKU puntúa el doble que en el nombre
+    private static final int SKU_WEIGHT = 2;
+
+    private static final int GRAM = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    public record Hit(Long productId, int score) {
+    }
+
+    private record Document(String name, List<String> nameTerms, List<String> skuTerms) {
+    }
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> prefixes = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+
+    /**
+     * Da de alta o reemplaza un producto en el índice
+     */
+    public synchronized void index(Long productId, String name, String sku) {
+        remove(productId);
+        Document doc = new Document(normalize(name), terms(name), terms(sku));
+        documents.put(productId, doc);
+        for (String term : allTerms(doc)) {
+            forEachKey(term, key -> prefixes.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(productId),
+                    key -> grams.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(productId));
+        }
+    }
+
+    /**
+     * Elimina un producto del índice si estaba indexado
+     */
+    public synchronized void remove(Long productId) {
+        Document doc = documents.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : allTerms(doc)) {
+            forEachKey(term, key -> detach(prefixes, key, productId), key -> detach(grams, key, productId));
+        }
+    }
+
+    /**
+     * Mantiene el índice al día con las altas, cambios y bajas de productos:
+     * solo los productos activos se pueden encontrar
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.active()) {
+            index(event.productId(), event.name(), event.sku());
+        } else {
+            remove(event.productId());
+        }
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+        prefixes.clear();
+        grams.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Busca los productos que contienen todos los términos de la consulta, ya sea
+     * como término completo, como prefijo o como fragmento interior
+     *
+     * @param query texto libre
+     * @return ids ordenados por relevancia descendente, después por nombre e id
+     */
+    public List<Hit> search(String query) {
+        List<String> queryTerms = terms(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String term : queryTerms) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            for (Long id : candidates(term)) {
+                Document doc = documents.get(id);
+                int score = doc == null ? 0 : score(doc, term);
+                if (score > 0) {
+                    termScores.put(id, score);
+                }
+            }
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+                .thenComparing(hit -> nameOf(hit.productId()))
+                .thenComparing(Hit::productId));
+        return hits;
+    }
+
+    // ===== Auxiliares =====
+
+    private Set<Long> candidates(String term) {
+        if (term.length() < GRAM) {
+            return prefixes.getOrDefault(term, Set.of());
+        }
+        if (term.length() == GRAM) {
+            // El término es a la vez prefijo y trigrama: unión de ambas listas
+            Set<Long> result = new LinkedHashSet<>(prefixes.getOrDefault(term, Set.of()));
+            result.addAll(grams.getOrDefault(term, Set.of()));
+            return result;
+        }
+        // Intersección de las listas de trigramas, empezando por la más corta
+        List<Set<Long>> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            Set<Long> posting = grams.get(term.substring(i, i + GRAM));
+            if (posting == null) {
+                return Set.of();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new LinkedHashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    private static int score(Document doc, String term) {
+        return Math.max(bestMatch(doc.nameTerms(), term), SKU_WEIGHT * bestMatch(doc.skuTerms(), term));
+    }
+
+    private static int bestMatch(List<String> terms, String term) {
+        int best = 0;
+        for (String candidate : terms) {
+            if (candidate.equals(term)) {
+                return EXACT_SCORE;
+            }
+            if (candidate.startsWith(term)) {
+                best = Math.max(best, PREFIX_SCORE);
+            } else if (term.length() >= GRAM && candidate.contains(term)) {
+                best = Math.max(best, INFIX_SCORE);
+            }
+        }
+        return best;
+    }
+
+    private String nameOf(Long productId) {
+        Document doc = documents.get(productId);
+        return doc == null ? "" : doc.name();
+    }
+
+    private static List<String> allTerms(Document doc) {
+        List<String> all = new ArrayList<>(doc.nameTerms());
+        all.addAll(doc.skuTerms());
+        return all;
+    }
+
+    /**
+     * Recorre las claves de un término: prefijos de hasta GRAM caracteres y
+     * trigramas de todo el término
+     */
+    private static void forEachKey(String term, Consumer<String> prefix, Consumer<String> gram) {
+        for (int len = 1; len <= Math.min(GRAM, term.length()); len++) {
+            prefix.accept(term.substring(0, len));
+        }
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            gram.accept(term.substring(i, i + GRAM));
+        }
+    }
+
+    private static void detach(Map<String, Set<Long>> postings, String key, Long productId) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(productId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(normalize(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,45 @@
+package com.delogica.springboot.search;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.delogica.springboot.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Carga el índice de búsqueda con los productos activos al arrancar la aplicación,
+ * recorriendo la tabla por bloques para no materializarla entera
+ * Cada bloque continúa tras el último id leído (keyset) y trae solo id, nombre
+ * y SKU: sin COUNT, sin OFFSET y sin entidades
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndexLoader {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        productSearchIndex.clear();
+        long lastId = 0;
+        List<ProductSearchRow> chunk;
+        do {
+            chunk = productRepository.findSearchRowsAfter(lastId, Limit.of(CHUNK_SIZE));
+            chunk.forEach(p -> productSearchIndex.index(p.id(), p.name(), p.sku()));
+            if (!chunk.isEmpty()) {
+                lastId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+        log.info("Índice de búsqueda de productos cargado con {} productos", productSearchIndex.size());
+    }
+}
@@ -0,0 +1,8 @@
+package com.delogica.springboot.search;
+
+/**
+ * Columnas de un producto que necesita el índice de búsqueda
+ * (ver ProductRepository.findSearchRowsAfter)
+ */
+public record ProductSearchRow(Long id, String name, String sku) {
+}
@@ -5,11 +5,15 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import com.delogica.springboot.cache.SecondLevelCacheInvalidator;
+import com.delogica.springboot.config.CacheConfig;
 import com.delogica.springboot.dto.AddressInputDTO;
 import com.delogica.springboot.dto.AddressOutputDTO;
 import com.delogica.springboot.exceptions.NotFoundException;
@@ -39,6 +43,7 @@ public class AddressServiceImpl implements AddressService {
     private final AddressMapper addressMapper;
     private final Pageables pageables;
     private final CustomerRepository customerRepository;
+    private final SecondLevelCacheInvalidator cacheInvalidator;
 
      /**
      * Obtiene las direcciones por defecto de un cliente
@@ -117,6 +122,8 @@ public class AddressServiceImpl implements AddressService {
 
     /**
      * Elimina una dirección de un cliente
+     * El borrado es un único DELETE condicionado al cliente y a que no sea la
+     * predeterminada; solo si no borra nada se consulta el motivo
      *
      * @param customerId id del cliente propietario (> 0)
      * @param addressId id de la dirección a eliminar (> 0)
@@ -124,21 +131,25 @@ public class AddressServiceImpl implements AddressService {
      * @throws IllegalStateException si la dirección es la predeterminada del cliente
      */
     @Override
+    @Transactional
     public void delete(Long customerId, Long addressId) {
-        Address address = addressRepository.findByIdAndCustomerId(addressId, customerId)
+        if (addressRepository.deleteNonDefaultByIdAndCustomerId(addressId, customerId) == 1) {
+            cacheInvalidator.evictAfterCommit(Address.class, List.of(addressId));
+            return;
+        }
+
+        boolean isDefault = addressRepository.findIsDefaultByIdAndCustomerId(addressId, customerId)
                 .orElseThrow(() -> new NotFoundException(
                         "No se ha encontrado la dirección con id: " + addressId + " para el cliente " + customerId));
-
-        if (Boolean.TRUE.equals(address.getIsDefault())) {
+        if (isDefault) {
             throw new IllegalStateException("No se puede eliminar la dirección por defecto del cliente");
         }
-
-        addressRepository.deleteByIdAndCustomerId(addressId, customerId);
     }
 
     /**
      * Lista paginada de direcciones de un cliente
      * Si no se especifica orden en el pageable, se aplica el orden por defecto de direcciones
+     * La consulta proyecta directamente en el DTO, sin cargar entidades
      *
      * @param customerId id del cliente (> 0)
      * @param pageable criterios de paginación y orden
@@ -149,9 +160,37 @@ public class AddressServiceImpl implements AddressService {
             @NotNull @Positive Long customerId,
             Pageable pageable) {
         Pageable effective = pageables.withDefaultSort(pageable, pageables.addressDefaultSort());
-        return addressRepository
-                .findAllByCustomerId(customerId, effective)
-                .map(addressMapper::toDto);
+        return addressRepository.findDtosByCustomerId(customerId, effective);
+    }
+
+    /**
+     * Como findAllByCustomerId, pero sin la consulta de count: lee una fila de
+     * más para saber si hay página siguiente
+     *
+     * @param customerId id del cliente (> 0)
+     * @param pageable criterios de paginación y orden
+     * @return porción de direcciones mapeadas a DTO
+     */
+    @Override
+    public Slice<AddressOutputDTO> sliceAllByCustomerId(
+            @NotNull @Positive Long customerId,
+            Pageable pageable) {
+        Pageable effective = pageables.withDefaultSort(pageable, pageables.addressDefaultSort());
+        return addressRepository.sliceDtosByCustomerId(customerId, effective);
+    }
+
+    /**
+     * Total de direcciones de un cliente, cacheado con TTL
+     * (app.pagination.count-ttl); no se invalida con las escrituras, así que
+     * es aproximado
+     *
+     * @param customerId id del cliente (> 0)
+     * @return número de direcciones del cliente
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.LIST_COUNTS, key = "'addresses:' + #customerId")
+    public long countByCustomerId(@NotNull @Positive Long customerId) {
+        return addressRepository.countByCustomerId(customerId);
     }
 
 }
@@ -1,22 +1,33 @@
 package com.delogica.springboot.service.impl;
 
+import java.util.Locale;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import com.delogica.springboot.concurrency.RetryOnConflict;
+import com.delogica.springboot.config.CacheConfig;
 import com.delogica.springboot.dto.CustomerInputDTO;
 import com.delogica.springboot.dto.CustomerOutputDTO;
 import com.delogica.springboot.exceptions.NotFoundException;
 import com.delogica.springboot.exceptions.ResourceAlreadyExistsException;
+import com.delogica.springboot.exceptions.VersionConflictException;
 import com.delogica.springboot.mapper.CustomerMapper;
+import com.delogica.springboot.membership.CustomerEmailFilter;
 import com.delogica.springboot.model.Customer;
 import com.delogica.springboot.repository.CustomerRepository;
 import com.delogica.springboot.service.interfaces.CustomerService;
 import com.delogica.springboot.utils.Pageables;
+import com.delogica.springboot.utils.Versions;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
@@ -29,6 +40,10 @@ import lombok.RequiredArgsConstructor;
  * Servicio de clientes que gestiona operaciones de consulta y mantenimiento
  * Orquesta el acceso a datos mediante CustomerRepository y el mapeo con
  * CustomerMapper
+ * Los emails se comparan normalizados (Customer.normalizeEmail): el filtro
+ * CustomerEmailFilter evita la consulta previa cuando el email es nuevo y la
+ * restricción única de la BBDD decide en última instancia, también entre
+ * altas concurrentes
  */
 
 @Service
@@ -40,15 +55,44 @@ public class CustomerServiceImpl implements CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
     private final Pageables pageables;
+    private final CustomerEmailFilter customerEmailFilter;
 
     // ===== Lectura =====
 
+    /**
+     * Lista paginada de clientes, proyectada directamente en el DTO sin cargar
+     * entidades
+     * Si el pageable no trae sort, aplica el orden por defecto de clientes
+     */
     @Override
     @Transactional(readOnly = true)
     public Page<CustomerOutputDTO> findAll(Pageable pageable) {
         Pageable effective = pageables.withDefaultSort(pageable,
                 pageables.customerDefaultSort()); // p.ej. fullName ASC, id DESC
-        return customerRepository.findAll(effective).map(customerMapper::toDto);
+        return customerRepository.findAllAsDto(effective);
+    }
+
+    /**
+     * Como findAll, pero sin la consulta de count: lee una fila de más para
+     * saber si hay página siguiente
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CustomerOutputDTO> sliceAll(Pageable pageable) {
+        Pageable effective = pageables.withDefaultSort(pageable, pageables.customerDefaultSort());
+        return customerRepository.sliceAllAsDto(effective);
+    }
+
+    /**
+     * Total de clientes para las vistas que lo muestran junto a sliceAll
+     * Se cachea con TTL (app.pagination.count-ttl) y no se invalida con las
+     * escrituras, así que es aproximado
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.LIST_COUNTS, key = "'customers'")
+    public long countAll() {
+        return customerRepository.count();
     }
 
     /**
@@ -62,7 +106,7 @@ public class CustomerServiceImpl implements CustomerService {
     @Transactional(readOnly = true)
     public CustomerOutputDTO findByEmail(@NotBlank @Email String email) {
 
-        Optional<Customer> opt = customerRepository.findByEmail(email);
+        Optional<Customer> opt = customerRepository.findByEmailNormalized(Customer.normalizeEmail(email));
 
         Customer customer = opt.orElseThrow(
                 () -> new NotFoundException("Cliente no encontrado con email: " + email));
@@ -90,6 +134,8 @@ public class CustomerServiceImpl implements CustomerService {
     /**
      * Actualiza los datos básicos de un cliente por id
      *
+     * Si otra transacción modifica el cliente a la vez, se reintenta
+     *
      * @param customer DTO de entrada con los nuevos datos
      * @param id       id del cliente a actualizar
      * @return DTO del cliente actualizado
@@ -97,25 +143,48 @@ public class CustomerServiceImpl implements CustomerService {
      */
     @Override
     @Transactional
+    @RetryOnConflict
     public CustomerOutputDTO updateById(@Valid @NotNull CustomerInputDTO input,
             @NotNull @Positive Long id) {
+        return updateById(input, id, null);
+    }
+
+    /**
+     * Actualiza un cliente solo si sigue en la versión indicada (estilo If-Match)
+     *
+     * @param customer        DTO de entrada con los nuevos datos
+     * @param id              id del cliente a actualizar
+     * @param expectedVersion versión que el cliente leyó; null para no condicionar
+     * @return DTO del cliente actualizado
+     * @throws NotFoundException         si no existe un cliente con ese id
+     * @throws VersionConflictException si el cliente ya no está en la versión esperada
+     */
+    @Override
+    @Transactional
+    public CustomerOutputDTO updateById(@Valid @NotNull CustomerInputDTO input,
+            @NotNull @Positive Long id, Long expectedVersion) {
 
         Customer entity = customerRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Cliente no encontrado con id: " + id));
+        Versions.checkExpected("Cliente", id, expectedVersion, entity.getVersion());
 
-        if (!entity.getEmail().equalsIgnoreCase(input.getEmail())) {
-            customerRepository.findByEmail(input.getEmail())
-                    .ifPresent(c -> {
-                        throw new ResourceAlreadyExistsException(
-                                "Ya existe un cliente con email: " + input.getEmail());
-                    });
+        String email = Customer.normalizeEmail(input.getEmail());
+        boolean emailChanged = !email.equals(entity.getEmailNormalized());
+        if (emailChanged && customerEmailFilter.mightContain(email)
+                && customerRepository.existsByEmailNormalizedAndIdNot(email, id)) {
+            throw new ResourceAlreadyExistsException("Ya existe un cliente con email: " + input.getEmail());
         }
 
         entity.setEmail(input.getEmail());
         entity.setFullName(input.getFullName());
         entity.setPhone(input.getPhone());
 
-        return customerMapper.toDto(customerRepository.save(entity));
+        // flush: la versión se incrementa al escribir y la respuesta debe llevar la nueva
+        Customer saved = saveAndFlush(entity);
+        if (emailChanged) {
+            customerEmailFilter.put(email);
+        }
+        return customerMapper.toDto(saved);
     }
 
     /**
@@ -125,6 +194,7 @@ public class CustomerServiceImpl implements CustomerService {
      * @throws NotFoundException si no existe un cliente con ese id
      */
     @Override
+    @Transactional
     public void delete(@NotNull @Positive Long id) {
 
         Customer findCustomer = customerRepository.findById(id)
@@ -136,20 +206,52 @@ public class CustomerServiceImpl implements CustomerService {
 
     /**
      * Crea un nuevo cliente si el email no está registrado
+     * Solo consulta la BBDD si el filtro de emails no descarta el duplicado; en
+     * cualquier caso el INSERT se ejecuta aquí para que la restricción única
+     * rechace los duplicados que el filtro no conoce
      *
      * @param customer DTO de entrada con los datos del cliente
      * @return DTO del cliente creado
      * @throws ResourceAlreadyExistsException si ya existe un cliente con ese email
      */
     @Override
+    @Transactional
     public CustomerOutputDTO create(CustomerInputDTO customer) {
-        customerRepository.findByEmail(customer.getEmail())
-                .ifPresent(c -> {
-                    throw new ResourceAlreadyExistsException("Ya existe un cliente con email: " + customer.getEmail());
-                });
+        String email = Customer.normalizeEmail(customer.getEmail());
+        if (customerEmailFilter.mightContain(email) && customerRepository.existsByEmailNormalized(email)) {
+            throw new ResourceAlreadyExistsException("Ya existe un cliente con email: " + customer.getEmail());
+        }
 
-        Customer saved = customerRepository.save(customerMapper.toEntity(customer));
+        Customer saved = saveAndFlush(customerMapper.toEntity(customer));
+        customerEmailFilter.put(email);
         return customerMapper.toDto(saved);
     }
 
+    // ===== Auxiliares =====
+
+    /**
+     * Escribe el cliente traduciendo la violación del índice único de email a
+     * ResourceAlreadyExistsException; el resto de violaciones se propagan
+     */
+    private Customer saveAndFlush(Customer customer) {
+        try {
+            return customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            if (violatesEmailConstraint(e)) {
+                throw new ResourceAlreadyExistsException("Ya existe un cliente con email: " + customer.getEmail());
+            }
+            throw e;
+        }
+    }
+
+    private static boolean violatesEmailConstraint(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Customer.EMAIL_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
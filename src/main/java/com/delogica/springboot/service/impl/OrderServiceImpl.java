@@ -1,34 +1,99 @@
 package com.delogica.springboot.service.impl;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 
+import com.delogica.springboot.concurrency.RetryOnConflict;
+import com.delogica.springboot.config.CacheConfig;
+import com.delogica.springboot.dto.ExportFormat;
+import com.delogica.springboot.dto.OrderBulkReportDTO;
+import com.delogica.springboot.dto.OrderBulkResultDTO;
+import com.delogica.springboot.dto.OrderCursorPageDTO;
 import com.delogica.springboot.dto.OrderInputDTO;
 import com.delogica.springboot.dto.OrderItemInputDTO;
+import com.delogica.springboot.dto.OrderItemOutputDTO;
 import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.dto.OrderStatusBulkResultDTO;
 import com.delogica.springboot.exceptions.NotFoundException;
+import com.delogica.springboot.exceptions.ResourceAlreadyExistsException;
+import com.delogica.springboot.exceptions.VersionConflictException;
+import com.delogica.springboot.idempotency.OrderIdempotencyStore;
 import com.delogica.springboot.mapper.OrderItemMapper;
 import com.delogica.springboot.mapper.OrderMapper;
 
+import com.delogica.springboot.model.Address;
+import com.delogica.springboot.model.Customer;
 import com.delogica.springboot.model.Order;
+import com.delogica.springboot.model.OrderIdempotencyKey;
 import com.delogica.springboot.model.OrderItem;
 import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.model.OrderStatusTransitions;
+import com.delogica.springboot.model.Product;
+import com.delogica.springboot.repository.OrderItemRepository;
 import com.delogica.springboot.repository.OrderRepository;
+import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.outbox.OrderEventType;
 import com.delogica.springboot.service.interfaces.OrderService;
+import com.delogica.springboot.service.interfaces.OutboxService;
+import com.delogica.springboot.service.interfaces.SalesRollupService;
+import com.delogica.springboot.service.interfaces.StockService;
+import com.delogica.springboot.utils.OrderCursors;
 import com.delogica.springboot.utils.Pageables;
+import com.delogica.springboot.utils.Versions;
 
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 
 /**
  * Servicio de Orders que orquesta operaciones de consulta
@@ -40,22 +105,111 @@ import jakarta.validation.constraints.Positive;
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
     private final OrderMapper orderMapper;
     private final Pageables pageables;
     private final OrderItemMapper orderItemMapper;
+    private final OrderCursors orderCursors;
+    private final StockService stockService;
+    private final SalesRollupService salesRollupService;
+    private final OutboxService outboxService;
+    private final OrderIdempotencyStore orderIdempotencyStore;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Pedidos que se retienen en el contexto de persistencia antes de escribirlos y vaciarlo
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    // Ids por sentencia en los cambios de estado masivos, para acotar las listas IN
+    private static final int BULK_STATUS_CHUNK_SIZE = 1000;
 
-    public OrderServiceImpl(OrderRepository orderRepository, OrderMapper orderMapper,
-            Pageables pageables, OrderItemMapper orderItemMapper) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderServiceImpl(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+            ProductRepository productRepository,
+            OrderMapper orderMapper, Pageables pageables, OrderItemMapper orderItemMapper,
+            OrderCursors orderCursors, StockService stockService, SalesRollupService salesRollupService,
+            OutboxService outboxService, OrderIdempotencyStore orderIdempotencyStore, Validator validator,
+            PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
         this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productRepository = productRepository;
         this.orderMapper = orderMapper;
         this.pageables = pageables;
         this.orderItemMapper = orderItemMapper;
+        this.orderCursors = orderCursors;
+        this.stockService = stockService;
+        this.salesRollupService = salesRollupService;
+        this.outboxService = outboxService;
+        this.orderIdempotencyStore = orderIdempotencyStore;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
     }
 
     private static LocalDateTime[] normalize(LocalDateTime start, LocalDateTime end) {
         return end.isBefore(start) ? new LocalDateTime[] { end, start } : new LocalDateTime[] { start, end };
     }
 
+    /**
+     * Completa una página de ids con los pedidos y sus ítems cargados en una sola
+     * consulta, respetando el orden de la página original
+     * Evita el N+1 de recorrer Order.items por cada fila al mapear a DTO
+     *
+     * @param ids página de ids de pedidos ya ordenada y paginada
+     * @return página de órdenes mapeadas a DTO
+     */
+    private Page<OrderOutputDTO> loadPage(Page<Long> ids) {
+        List<OrderOutputDTO> orders = loadOrders(ids.getContent());
+        return new PageImpl<>(orders, ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Como loadPage, para una porción sin total
+     */
+    private Slice<OrderOutputDTO> loadSlice(Slice<Long> ids) {
+        return new SliceImpl<>(loadOrders(ids.getContent()), ids.getPageable(), ids.hasNext());
+    }
+
+    /**
+     * Carga los pedidos indicados con sus ítems en una sola consulta y los
+     * devuelve mapeados a DTO en el mismo orden que los ids
+     * Los ids de pedidos borrados entre la consulta de ids y esta carga se omiten
+     */
+    private List<OrderOutputDTO> loadOrders(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, OrderOutputDTO> byId = orderRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, orderMapper::toDto));
+
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Construye una página por cursor a partir de las claves leídas (size + 1 para
+     * saber si hay más sin lanzar un count)
+     * El cursor siguiente sale de la última clave leída de la página, no del último
+     * pedido cargado: si entre ambas consultas se borran pedidos, la página sale
+     * más corta pero el recorrido avanza igual
+     */
+    private OrderCursorPageDTO loadCursorPage(List<OrderCursors.Position> positions, int size) {
+        boolean hasNext = positions.size() > size;
+        List<OrderCursors.Position> page = hasNext ? positions.subList(0, size) : positions;
+        List<OrderOutputDTO> content = loadOrders(page.stream().map(OrderCursors.Position::id).toList());
+
+        String nextCursor = null;
+        if (hasNext) {
+            OrderCursors.Position last = page.get(page.size() - 1);
+            nextCursor = orderCursors.encode(last.orderDate(), last.id());
+        }
+        return new OrderCursorPageDTO(content, nextCursor, hasNext);
+    }
+
     /**
      * Devuelve las órdenes de un cliente con paginación
      *
@@ -69,9 +223,7 @@ public class OrderServiceImpl implements OrderService {
     public Page<OrderOutputDTO> findByCustomerId(@NotNull @Positive Long customerId, Pageable pageable) {
 
         Pageable effective = pageables.withDefaultSort(pageable, pageables.orderDefaultSort());
-        return orderRepository
-                .findByCustomerId(customerId, effective)
-                .map(orderMapper::toDto);
+        return loadPage(orderRepository.findIdsByCustomerId(customerId, effective));
     }
 
     /**
@@ -93,41 +245,395 @@ public class OrderServiceImpl implements OrderService {
 
         Pageable effective = pageables.withDefaultSort(pageable, pageables.orderDefaultSort());
 
-        return orderRepository
-                .findByOrderDateBetween(r[0], r[1], effective)
-                .map(orderMapper::toDto);
+        return loadPage(orderRepository.findIdsByOrderDateBetween(r[0], r[1], effective));
+    }
+
+    /**
+     * Exporta los pedidos de un rango de fechas escribiéndolos directamente en
+     * el flujo de salida, en orden de fecha e id
+     * Recorre un Stream de solo avance con fetch size ajustado; cada bloque de
+     * EXPORT_CHUNK_SIZE pedidos se escribe (sus ítems se cargan por lotes con
+     * BatchSize) y se vacía el contexto de persistencia, de modo que ni el
+     * contexto ni el heap crecen con el volumen exportado
+     * Si el rango viene invertido, se normaliza para que start ≤ end
+     *
+     * @param start  fecha y hora de inicio inclusive
+     * @param end    fecha y hora de fin inclusive
+     * @param format formato de salida, CSV (una fila por pedido) o NDJSON (un
+     *               pedido con sus ítems por línea)
+     * @param out    flujo de salida; no se cierra al terminar
+     * @return número de pedidos exportados
+     * @throws UncheckedIOException si falla la escritura en el flujo de salida
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportByOrderDateBetween(@NotNull LocalDateTime start, @NotNull LocalDateTime end,
+            @NotNull ExportFormat format, @NotNull OutputStream out) {
+
+        LocalDateTime[] r = normalize(start, end);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        List<Order> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        long exported = 0;
+
+        try (Stream<Order> orders = orderRepository.streamByOrderDateBetween(r[0], r[1])) {
+            if (format == ExportFormat.CSV) {
+                writer.write("orderId,customerId,shippingAddressId,orderDate,status,total,items\n");
+            }
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                chunk.add(order);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exported += writeChunk(chunk, format, writer);
+                }
+            }
+            exported += writeChunk(chunk, format, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir la exportación de pedidos", e);
+        }
+        return exported;
+    }
+
+    /**
+     * Escribe un bloque de pedidos, vuelca el writer y desvincula las entidades
+     * del contexto de persistencia
+     */
+    private int writeChunk(List<Order> chunk, ExportFormat format, Writer writer) throws IOException {
+        for (Order order : chunk) {
+            OrderOutputDTO dto = orderMapper.toDto(order);
+            if (format == ExportFormat.CSV) {
+                writeCsv(dto, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+            }
+        }
+        int written = chunk.size();
+        writer.flush();
+        chunk.clear();
+        entityManager.clear();
+        return written;
+    }
+
+    /**
+     * Una fila por pedido; los ítems van en una sola columna como
+     * productId:quantity:unitPrice separados por ';'
+     */
+    private static void writeCsv(OrderOutputDTO dto, Writer writer) throws IOException {
+        StringBuilder row = new StringBuilder(128)
+                .append(dto.getOrderId()).append(',')
+                .append(dto.getCustomerId()).append(',')
+                .append(dto.getShippingAddressId()).append(',')
+                .append(dto.getOrderDate()).append(',')
+                .append(dto.getStatus()).append(',')
+                .append(dto.getTotal() == null ? "" : dto.getTotal().toPlainString()).append(',');
+        if (dto.getItems() != null) {
+            for (int i = 0; i < dto.getItems().size(); i++) {
+                OrderItemOutputDTO item = dto.getItems().get(i);
+                if (i > 0) {
+                    row.append(';');
+                }
+                row.append(item.getProductId()).append(':')
+                        .append(item.getQuantity()).append(':')
+                        .append(item.getUnitPrice() == null ? "" : item.getUnitPrice().toPlainString());
+            }
+        }
+        writer.write(row.append('\n').toString());
     }
 
     /**
      * Crea una nueva orden a partir del DTO de entrada
-     * Fija estado inicial CREATED, enlaza ítems y delega en hooks del modelo el
-     * cálculo del total y fecha
+     * Fija estado inicial CREATED, enlaza ítems, fija en ellos el precio actual
+     * de cada producto, reserva el stock de forma atómica, suma el pedido a los
+     * agregados de ventas, registra ORDER_CREATED en el outbox y delega en hooks
+     * del modelo el cálculo del total y fecha
      *
      * @param input DTO de entrada validado
      * @return orden creada mapeada a DTO
+     * @throws NotFoundException     si algún producto no existe
+     * @throws IllegalStateException si algún producto no tiene stock suficiente
      */
     @Override
     @Transactional
     public OrderOutputDTO create(@Valid @NotNull OrderInputDTO input) {
+        return createOrder(input);
+    }
+
+    /**
+     * Crea una orden una sola vez por cliente y clave de idempotencia
+     * Un reintento con una clave ya confirmada y la misma entrada (misma huella
+     * SHA-256) devuelve el pedido original desde OrderIdempotencyStore (en
+     * memoria o por clave primaria), sin validar, mapear ni insertar nada
+     * Una clave nueva se reserva en la misma transacción que el alta, así que
+     * se confirman juntas o ninguna; si dos peticiones con la misma clave llegan
+     * a la vez, la segunda espera a la primera y devuelve su pedido
+     *
+     * @param idempotencyKey clave elegida por el cliente para la operación
+     * @param input          DTO de entrada; solo se valida si la clave es nueva
+     * @return orden creada, o la creada la primera vez con esa clave
+     * @throws ConstraintViolationException   si la clave es nueva y la entrada no es válida
+     * @throws NotFoundException              si algún producto no existe
+     * @throws IllegalStateException          si algún producto no tiene stock suficiente
+     * @throws ResourceAlreadyExistsException si otra petición con la misma clave
+     *                                        sigue en curso, o si la clave ya se
+     *                                        usó con otra entrada
+     */
+    @Override
+    public OrderOutputDTO create(
+            @NotBlank @Size(max = OrderIdempotencyKey.MAX_KEY_LENGTH) String idempotencyKey,
+            @NotNull OrderInputDTO input) {
+
+        // Sin cliente no hay ámbito para la clave: la validación lo rechaza
+        OrderIdempotencyKey.Key key = new OrderIdempotencyKey.Key(input.getCustomerId(), idempotencyKey);
+        String requestHash = orderIdempotencyStore.requestHash(input);
+        if (key.getCustomerId() != null) {
+            Optional<OrderOutputDTO> previous = orderIdempotencyStore.find(key, requestHash);
+            if (previous.isPresent()) {
+                return previous.get();
+            }
+        }
+
+        Set<ConstraintViolation<OrderInputDTO>> violations = validator.validate(input);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                OrderIdempotencyKey claim = orderIdempotencyStore.claim(key, requestHash);
+                OrderOutputDTO dto = createOrder(input);
+                orderIdempotencyStore.complete(claim, dto);
+                return dto;
+            });
+        } catch (DuplicateKeyException e) {
+            // Otra petición con la misma clave reservó antes: su pedido, si ya confirmó
+            return orderIdempotencyStore.find(key, requestHash)
+                    .orElseThrow(() -> new ResourceAlreadyExistsException(
+                            "Hay otra petición en curso con la clave de idempotencia: " + idempotencyKey));
+        }
+    }
+
+    /**
+     * Alta de una orden en la transacción en curso (ver create)
+     */
+    private OrderOutputDTO createOrder(OrderInputDTO input) {
+        Order order = newOrder(input);
+        stockService.reserve(quantitiesByProduct(order.getItems()));
+
+        Order saved = orderRepository.save(order);
+        salesRollupService.add(saved);
+
+        OrderOutputDTO dto = orderMapper.toDto(saved);
+        outboxService.recordOrderEvent(OrderEventType.ORDER_CREATED, dto);
+        return dto;
+    }
 
+    /**
+     * Crea órdenes en bloque confirmando una transacción por cada chunkSize
+     * registros y vaciando el contexto de persistencia entre bloques, de modo que
+     * la memoria no crece con el tamaño del lote
+     * Los registros inválidos se informan sin abortar el resto; si un bloque falla
+     * al persistir se reintenta registro a registro para aislar el erróneo
+     *
+     * @param inputs    DTOs de entrada, validados individualmente
+     * @param chunkSize número de órdenes por transacción, debe ser > 0
+     * @return informe con el id creado o el error de cada registro, en el orden de
+     *         entrada
+     */
+    @Override
+    public OrderBulkReportDTO createBulk(@NotNull List<OrderInputDTO> inputs, @Positive int chunkSize) {
+
+        OrderBulkReportDTO report = new OrderBulkReportDTO();
+        List<Integer> chunk = new ArrayList<>(chunkSize);
+
+        for (int i = 0; i < inputs.size(); i++) {
+            String error = validate(inputs.get(i));
+            if (error != null) {
+                report.getResults().add(new OrderBulkResultDTO(i, null, error));
+                continue;
+            }
+            chunk.add(i);
+            if (chunk.size() == chunkSize) {
+                persistChunk(inputs, chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(inputs, chunk, report);
+        }
+
+        report.getResults().sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        report.setCreated((int) report.getResults().stream().filter(r -> r.getError() == null).count());
+        report.setFailed(report.getResults().size() - report.getCreated());
+        return report;
+    }
+
+    private void persistChunk(List<OrderInputDTO> inputs, List<Integer> chunk, OrderBulkReportDTO report) {
+        try {
+            List<OrderBulkResultDTO> created = transactionTemplate.execute(status -> {
+                List<OrderBulkResultDTO> results = new ArrayList<>(chunk.size());
+                for (Integer index : chunk) {
+                    Order order = newOrder(inputs.get(index));
+                    stockService.reserve(quantitiesByProduct(order.getItems()));
+                    entityManager.persist(order);
+                    salesRollupService.add(order);
+                    outboxService.recordOrderEvent(OrderEventType.ORDER_CREATED, orderMapper.toDto(order));
+                    results.add(new OrderBulkResultDTO(index, order.getId(), null));
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return results;
+            });
+            report.getResults().addAll(created);
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                report.getResults().add(new OrderBulkResultDTO(chunk.get(0), null, e.getMessage()));
+                return;
+            }
+            for (Integer index : chunk) {
+                persistChunk(inputs, List.of(index), report);
+            }
+        }
+    }
+
+    private String validate(OrderInputDTO input) {
+        if (input == null) {
+            return "El pedido no puede ser null";
+        }
+        Set<ConstraintViolation<OrderInputDTO>> violations = validator.validate(input);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Construye una orden nueva en estado CREATED con sus ítems enlazados
+     */
+    private Order newOrder(OrderInputDTO input) {
         Order order = orderMapper.toEntity(input);
 
+        // Referencias gestionadas en lugar de las instancias con solo id del mapper:
+        // Customer lleva @Version y una instancia suelta sin versión no se puede asociar
+        order.setCustomer(entityManager.getReference(Customer.class, input.getCustomerId()));
+        if (input.getAddressId() != null) {
+            order.setShippingAddress(entityManager.getReference(Address.class, input.getAddressId()));
+        }
         order.setStatus(OrderStatus.CREATED);
 
         if (order.getItems() != null) {
             for (OrderItem item : order.getItems()) {
                 item.setOrder(order);
             }
+            snapshotPrices(order.getItems());
         }
+        return order;
+    }
 
-        Order saved = orderRepository.save(order);
-        return orderMapper.toDto(saved);
+    /**
+     * Fija en cada ítem el precio actual de su producto, resolviendo todos los
+     * productos referenciados con una única consulta IN
+     *
+     * @throws NotFoundException si algún producto no existe
+     */
+    private void snapshotPrices(List<OrderItem> items) {
+        Set<Long> productIds = items.stream()
+                .map(item -> item.getProduct().getId())
+                .collect(Collectors.toSet());
+
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (OrderItem item : items) {
+            Long productId = item.getProduct().getId();
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new NotFoundException("Producto no encontrado con id: " + productId);
+            }
+            item.setProduct(product);
+            item.setUnitPrice(product.getPrice());
+        }
+    }
+
+    /**
+     * Carga el pedido solo si pertenece al cliente, en una única consulta por
+     * clave primaria; si no llega, una consulta de existencia decide el error
+     *
+     * @throws IllegalArgumentException si el pedido existe pero es de otro cliente
+     */
+    private Order findOwned(Long customerId, Long orderId, Supplier<? extends RuntimeException> notFound) {
+        return orderRepository.findByIdAndCustomerId(orderId, customerId)
+                .orElseThrow(() -> orderRepository.existsById(orderId)
+                        ? new IllegalArgumentException("El pedido no pertenece al customer indicado")
+                        : notFound.get());
+    }
+
+    /**
+     * Agrupa las cantidades de los ítems por id de producto
+     */
+    private static Map<Long, Integer> quantitiesByProduct(List<OrderItem> items) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        if (items != null) {
+            for (OrderItem item : items) {
+                quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+
+    /**
+     * Fusiona las líneas recibidas con los ítems actuales del pedido
+     * Empareja por producto (por orden de aparición si se repite): las líneas
+     * emparejadas cambian la cantidad en el sitio y conservan su precio, las que
+     * sobran se borran (orphanRemoval) y las nuevas se insertan con el precio
+     * vigente, de modo que los UPDATE, INSERT y DELETE (agrupados en lotes JDBC)
+     * dependen del tamaño del cambio y no del número de líneas del pedido
+     * Los productos nuevos se resuelven antes de tocar la colección: la consulta
+     * haría un flush automático de ítems que aún apuntan a instancias sueltas de
+     * Product
+     */
+    private void mergeItems(Order order, List<OrderItemInputDTO> lines) {
+        Map<Long, Deque<OrderItem>> current = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            current.computeIfAbsent(item.getProduct().getId(), id -> new ArrayDeque<>()).add(item);
+        }
+
+        List<OrderItem> added = new ArrayList<>();
+        if (lines != null) {
+            for (OrderItemInputDTO line : lines) {
+                Deque<OrderItem> matches = current.get(line.getProductId());
+                OrderItem match = matches == null ? null : matches.pollFirst();
+                if (match != null) {
+                    match.setQuantity(line.getQuantity());
+                } else {
+                    OrderItem item = orderItemMapper.toEntity(line);
+                    item.setOrder(order);
+                    added.add(item);
+                }
+            }
+        }
+        if (!added.isEmpty()) {
+            snapshotPrices(added);
+        }
+
+        Set<OrderItem> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        current.values().forEach(removed::addAll);
+        if (!removed.isEmpty()) {
+            order.getItems().removeIf(removed::contains);
+        }
+        order.getItems().addAll(added);
     }
 
     /**
      * Actualiza una orden existente del cliente indicado
-     * Reemplaza los ítems aplicando orphanRemoval, recalculándose total
-     * en @PreUpdate
+     * Fusiona los ítems recibidos con los actuales (ver mergeItems), recalcula
+     * el total, ajusta el stock con la diferencia de cantidades, sustituye la
+     * aportación del pedido en los agregados de ventas y registra
+     * ORDER_UPDATED en el outbox
+     *
+     * Si otra transacción modifica el pedido a la vez, se reintenta
      *
      * @param customerId id del cliente propietario de la orden
      * @param orderId    id de la orden a actualizar
@@ -138,36 +644,76 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     @Transactional
+    @RetryOnConflict
     public OrderOutputDTO update(
             @NotNull @Positive Long customerId,
             @NotNull @Positive Long orderId,
             @Valid @NotNull OrderInputDTO input) {
+        return update(customerId, orderId, input, null);
+    }
+
+    /**
+     * Actualiza una orden solo si sigue en la versión indicada (estilo If-Match)
+     * La versión del pedido avanza exactamente una vez por actualización, aunque
+     * el total no cambie, para que los cambios de ítems también invaliden las
+     * versiones leídas antes
+     *
+     * @param customerId      id del cliente propietario de la orden
+     * @param orderId         id de la orden a actualizar
+     * @param input           DTO de entrada validado con los nuevos datos de la orden
+     * @param expectedVersion versión que el cliente leyó; null para no condicionar
+     * @return orden actualizada mapeada a DTO
+     * @throws NotFoundException         si la orden no existe
+     * @throws IllegalArgumentException  si la orden no pertenece al cliente indicado
+     * @throws VersionConflictException si la orden ya no está en la versión esperada
+     */
+    @Override
+    @Transactional
+    public OrderOutputDTO update(
+            @NotNull @Positive Long customerId,
+            @NotNull @Positive Long orderId,
+            @Valid @NotNull OrderInputDTO input,
+            Long expectedVersion) {
 
-        Order existing = orderRepository.findById(orderId)
-                .orElseThrow(() -> new NotFoundException("Order no encontrado con id: " + orderId));
+        Order existing = findOwned(customerId, orderId,
+                () -> new NotFoundException("Order no encontrado con id: " + orderId));
+        Versions.checkExpected("Pedido", orderId, expectedVersion, existing.getVersion());
 
-        if (existing.getCustomer() == null || !existing.getCustomer().getId().equals(customerId)) {
-            throw new IllegalArgumentException("El pedido no pertenece al customer indicado");
-        }
+        Map<Long, Integer> previous = quantitiesByProduct(existing.getItems());
+        SalesRollupService.Contribution before = salesRollupService.contributionOf(existing);
 
-        // Reemplazar ítems (orphanRemoval = true se encarga de borrar los antiguos)
-        existing.getItems().clear();
-        if (input.getItems() != null && !input.getItems().isEmpty()) {
-            for (OrderItemInputDTO itemDto : input.getItems()) {
-                OrderItem item = orderItemMapper.toEntity(itemDto);
-                item.setOrder(existing);
-                existing.getItems().add(item);
-            }
+        mergeItems(existing, input.getItems());
+        // Cambiar solo la colección de ítems no marca el pedido como modificado ni
+        // dispara @PreUpdate: el total se recalcula aquí para persistirlo y publicarlo
+        existing.recomputeTotal();
+        // Marca el pedido como modificado: un único UPDATE con la versión comprobada
+        // e incrementada, cambie o no el total
+        existing.markModified();
+
+        // Un pedido cancelado ya devolvió su stock
+        if (existing.getStatus() != OrderStatus.CANCELLED) {
+            Map<Long, Integer> delta = quantitiesByProduct(existing.getItems());
+            previous.forEach((productId, quantity) -> delta.merge(productId, -quantity, Integer::sum));
+            stockService.adjust(delta);
         }
 
-        Order saved = orderRepository.save(existing);
-        return orderMapper.toDto(saved);
+        // flush: la versión se incrementa al escribir y la respuesta debe llevar la nueva
+        Order saved = orderRepository.saveAndFlush(existing);
+        salesRollupService.replace(before, saved);
+
+        OrderOutputDTO dto = orderMapper.toDto(saved);
+        outboxService.recordOrderEvent(OrderEventType.ORDER_UPDATED, dto);
+        return dto;
     }
 
     /**
      * Cambia el estado de una orden del cliente indicado
      * Aplica las reglas de transición definidas en el método de dominio
-     * changeStatus
+     * changeStatus, libera el stock reservado si el pedido se cancela, traslada
+     * el pedido al nuevo estado en los agregados de ventas y, si pasa a PAID,
+     * SHIPPED o CANCELLED, registra el evento correspondiente en el outbox
+     *
+     * Si otra transacción modifica el pedido a la vez, se reintenta
      *
      * @param customerId id del cliente propietario de la orden
      * @param orderId    id de la orden
@@ -179,20 +725,113 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     @Transactional
+    @RetryOnConflict
     public OrderOutputDTO updateStatus(
             @NotNull @Positive Long customerId,
             @NotNull @Positive Long orderId,
             @NotNull OrderStatus newStatus) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new EntityNotFoundException("Order no encontrada"));
+        return updateStatus(customerId, orderId, newStatus, null);
+    }
 
-        if (order.getCustomer() == null || !order.getCustomer().getId().equals(customerId)) {
-            throw new IllegalArgumentException("El pedido no pertenece al customer indicado");
-        }
+    /**
+     * Cambia el estado de una orden solo si sigue en la versión indicada (estilo
+     * If-Match)
+     *
+     * @param customerId      id del cliente propietario de la orden
+     * @param orderId         id de la orden
+     * @param newStatus       nuevo estado a aplicar
+     * @param expectedVersion versión que el cliente leyó; null para no condicionar
+     * @return orden con el nuevo estado mapeada a DTO
+     * @throws NotFoundException         si la orden no existe
+     * @throws IllegalStateException     si la transición de estado no es válida
+     * @throws IllegalArgumentException  si la orden no pertenece al cliente indicado
+     * @throws VersionConflictException si la orden ya no está en la versión esperada
+     */
+    @Override
+    @Transactional
+    public OrderOutputDTO updateStatus(
+            @NotNull @Positive Long customerId,
+            @NotNull @Positive Long orderId,
+            @NotNull OrderStatus newStatus,
+            Long expectedVersion) {
+        Order order = findOwned(customerId, orderId, () -> new EntityNotFoundException("Order no encontrada"));
+        Versions.checkExpected("Pedido", orderId, expectedVersion, order.getVersion());
 
+        OrderStatus previous = order.getStatus();
         order.changeStatus(newStatus);
-        Order saved = orderRepository.save(order);
-        return orderMapper.toDto(saved);
+
+        // Al cancelar se devuelve al stock lo reservado en la creación
+        if (newStatus == OrderStatus.CANCELLED && previous != OrderStatus.CANCELLED) {
+            stockService.release(quantitiesByProduct(order.getItems()));
+        }
+
+        salesRollupService.move(order, previous);
+
+        Order saved = orderRepository.saveAndFlush(order);
+        OrderOutputDTO dto = orderMapper.toDto(saved);
+
+        OrderEventType event = OrderEventType.forStatus(newStatus);
+        if (event != null && previous != newStatus) {
+            outboxService.recordOrderEvent(event, dto);
+        }
+        return dto;
+    }
+
+    /**
+     * Cambia el estado de un conjunto de pedidos sin cargarlos uno a uno
+     * Por cada bloque de ids bloquea los pedidos cuyo estado actual admite la
+     * transición según OrderStatusTransitions y les aplica un único UPDATE;
+     * antes traslada su aportación en los agregados de ventas y, si se cancelan,
+     * libera su stock con una consulta agregada por producto. Después registra
+     * en el outbox el evento de cada pedido cambiado
+     * Los pedidos que no existen o no admiten la transición (incluidos los que
+     * ya están en el estado de destino) se devuelven como rechazados
+     *
+     * @param orderIds  ids de los pedidos, sin nulos
+     * @param newStatus estado a aplicar
+     * @return ids actualizados y rechazados
+     */
+    @Override
+    @Transactional
+    public OrderStatusBulkResultDTO updateStatusBulk(@NotEmpty Collection<@NotNull Long> orderIds,
+            @NotNull OrderStatus newStatus) {
+
+        Set<OrderStatus> sources = OrderStatusTransitions.sourcesOf(newStatus);
+        OrderEventType event = OrderEventType.forStatus(newStatus);
+        // Orden ascendente: las transacciones concurrentes bloquean las filas en el mismo orden
+        List<Long> ids = orderIds.stream().distinct().sorted().toList();
+
+        OrderStatusBulkResultDTO result = new OrderStatusBulkResultDTO();
+        result.setStatus(newStatus.name());
+
+        for (int from = 0; from < ids.size() && !sources.isEmpty(); from += BULK_STATUS_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_STATUS_CHUNK_SIZE, ids.size()));
+            List<Long> accepted = orderRepository.lockIdsByIdInAndStatusIn(chunk, sources).stream().sorted().toList();
+            if (accepted.isEmpty()) {
+                continue;
+            }
+
+            if (newStatus == OrderStatus.CANCELLED) {
+                Map<Long, Integer> quantities = new HashMap<>();
+                for (Object[] row : orderItemRepository.sumQuantitiesByProduct(accepted)) {
+                    quantities.put((Long) row[0], ((Number) row[1]).intValue());
+                }
+                stockService.release(quantities);
+            }
+            salesRollupService.moveAll(accepted, newStatus);
+            orderRepository.updateStatusByIdIn(accepted, newStatus);
+
+            if (event != null) {
+                loadOrders(accepted).forEach(dto -> outboxService.recordOrderEvent(event, dto));
+            }
+            entityManager.flush();
+            entityManager.clear();
+            result.getUpdated().addAll(accepted);
+        }
+
+        Set<Long> updated = Set.copyOf(result.getUpdated());
+        ids.stream().filter(id -> !updated.contains(id)).forEach(result.getRejected()::add);
+        return result;
     }
 
     /**
@@ -218,9 +857,205 @@ public class OrderServiceImpl implements OrderService {
 
         Pageable effective = pageables.withDefaultSort(pageable, pageables.orderDefaultSort());
 
-        return orderRepository
-                .findByCustomerIdAndOrderDateBetween(customerId, r[0], r[1], effective)
-                .map(orderMapper::toDto);
+        return loadPage(orderRepository.findIdsByCustomerIdAndOrderDateBetween(customerId, r[0], r[1], effective));
+    }
+
+    // ===== Listados sin count y totales aproximados =====
+    // Los slice* leen una fila de más para saber si hay página siguiente en vez
+    // de lanzar un count sobre todo el filtro; quien necesite el total lo pide
+    // aparte a los count*, cacheados con TTL (app.pagination.count-ttl) y sin
+    // invalidar con las escrituras
+
+    /**
+     * Como findByCustomerId, pero sin la consulta de count
+     *
+     * @param customerId id del cliente, debe ser > 0
+     * @param pageable   criterios de paginación y orden, si no trae sort se aplica
+     *                   el orden por defecto del recurso
+     * @return porción de órdenes mapeadas a DTO
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderOutputDTO> sliceByCustomerId(@NotNull @Positive Long customerId, Pageable pageable) {
+        Pageable effective = pageables.withDefaultSort(pageable, pageables.orderDefaultSort());
+        return loadSlice(orderRepository.sliceIdsByCustomerId(customerId, effective));
+    }
+
+    /**
+     * Como findByCustomerIdAndOrderDateBetween, pero sin la consulta de count
+     * Si el rango viene invertido, se normaliza para que start ≤ end
+     *
+     * @param customerId id del cliente, debe ser > 0
+     * @param start      fecha y hora de inicio inclusive
+     * @param end        fecha y hora de fin inclusive
+     * @param pageable   criterios de paginación y orden, si no trae sort se aplica
+     *                   el orden por defecto del recurso
+     * @return porción de órdenes mapeadas a DTO
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderOutputDTO> sliceByCustomerIdAndOrderDateBetween(
+            @NotNull @Positive Long customerId,
+            @NotNull LocalDateTime start,
+            @NotNull LocalDateTime end,
+            Pageable pageable) {
+        LocalDateTime[] r = normalize(start, end);
+        Pageable effective = pageables.withDefaultSort(pageable, pageables.orderDefaultSort());
+        return loadSlice(orderRepository.sliceIdsByCustomerIdAndOrderDateBetween(customerId, r[0], r[1], effective));
+    }
+
+    /**
+     * Como findByOrderDateBetween, pero sin la consulta de count
+     * Si el rango viene invertido, se normaliza para que start ≤ end
+     *
+     * @param start    fecha y hora de inicio inclusive
+     * @param end      fecha y hora de fin inclusive
+     * @param pageable criterios de paginación y orden, si no trae sort se aplica el
+     *                 orden por defecto del recurso
+     * @return porción de órdenes mapeadas a DTO
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderOutputDTO> sliceByOrderDateBetween(@NotNull LocalDateTime start, @NotNull LocalDateTime end,
+            Pageable pageable) {
+        LocalDateTime[] r = normalize(start, end);
+        Pageable effective = pageables.withDefaultSort(pageable, pageables.orderDefaultSort());
+        return loadSlice(orderRepository.sliceIdsByOrderDateBetween(r[0], r[1], effective));
+    }
+
+    /**
+     * Total aproximado de órdenes de un cliente
+     *
+     * @param customerId id del cliente, debe ser > 0
+     * @return número de órdenes, con hasta count-ttl de retraso
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.LIST_COUNTS, key = "'orders:' + #customerId")
+    public long countByCustomerId(@NotNull @Positive Long customerId) {
+        return orderRepository.countByCustomerId(customerId);
+    }
+
+    /**
+     * Total aproximado de órdenes de un cliente en un rango de fechas
+     *
+     * @param customerId id del cliente, debe ser > 0
+     * @param start      fecha y hora de inicio inclusive
+     * @param end        fecha y hora de fin inclusive
+     * @return número de órdenes, con hasta count-ttl de retraso
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.LIST_COUNTS, key = "'orders:' + #customerId + ':' + #start + ':' + #end")
+    public long countByCustomerIdAndOrderDateBetween(
+            @NotNull @Positive Long customerId,
+            @NotNull LocalDateTime start,
+            @NotNull LocalDateTime end) {
+        LocalDateTime[] r = normalize(start, end);
+        return orderRepository.countByCustomerIdAndOrderDateBetween(customerId, r[0], r[1]);
+    }
+
+    /**
+     * Total aproximado de órdenes en un rango de fechas
+     *
+     * @param start fecha y hora de inicio inclusive
+     * @param end   fecha y hora de fin inclusive
+     * @return número de órdenes, con hasta count-ttl de retraso
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.LIST_COUNTS, key = "'orders:' + #start + ':' + #end")
+    public long countByOrderDateBetween(@NotNull LocalDateTime start, @NotNull LocalDateTime end) {
+        LocalDateTime[] r = normalize(start, end);
+        return orderRepository.countByOrderDateBetween(r[0], r[1]);
+    }
+
+    /**
+     * Devuelve órdenes de un cliente paginadas por cursor sobre (orderDate DESC,
+     * id DESC), buscando directamente a partir de la última clave servida en lugar
+     * de descartar filas con offset, y sin consulta de count
+     *
+     * @param customerId id del cliente, debe ser > 0
+     * @param cursor     cursor opaco devuelto por la página anterior, null para la
+     *                   primera página
+     * @param size       tamaño de página, debe ser > 0
+     * @return página de órdenes mapeadas a DTO con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderCursorPageDTO scrollByCustomerId(@NotNull @Positive Long customerId, String cursor,
+            @Positive int size) {
+
+        Limit limit = Limit.of(size + 1);
+        if (cursor == null) {
+            return loadCursorPage(orderRepository.findFirstPositionsByCustomerId(customerId, limit), size);
+        }
+        OrderCursors.Position after = orderCursors.decode(cursor);
+        return loadCursorPage(orderRepository.findPositionsByCustomerIdAfter(
+                customerId, after.orderDate(), after.id(), limit), size);
+    }
+
+    /**
+     * Devuelve órdenes de un cliente dentro de un rango de fechas, paginadas por
+     * cursor sobre (orderDate DESC, id DESC) y sin consulta de count
+     * Si el rango viene invertido, se normaliza para que start ≤ end
+     *
+     * @param customerId id del cliente, debe ser > 0
+     * @param start      fecha y hora de inicio inclusive
+     * @param end        fecha y hora de fin inclusive
+     * @param cursor     cursor opaco devuelto por la página anterior, null para la
+     *                   primera página
+     * @param size       tamaño de página, debe ser > 0
+     * @return página de órdenes mapeadas a DTO con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderCursorPageDTO scrollByCustomerIdAndOrderDateBetween(
+            @NotNull @Positive Long customerId,
+            @NotNull LocalDateTime start,
+            @NotNull LocalDateTime end,
+            String cursor,
+            @Positive int size) {
+
+        LocalDateTime[] r = normalize(start, end);
+        Limit limit = Limit.of(size + 1);
+        if (cursor == null) {
+            return loadCursorPage(orderRepository.findFirstPositionsByCustomerIdAndOrderDateBetween(
+                    customerId, r[0], r[1], limit), size);
+        }
+        OrderCursors.Position after = orderCursors.decode(cursor);
+        return loadCursorPage(orderRepository.findPositionsByCustomerIdAndOrderDateBetweenAfter(
+                customerId, r[0], r[1], after.orderDate(), after.id(), limit), size);
+    }
+
+    /**
+     * Devuelve órdenes dentro de un rango de fechas, paginadas por cursor sobre
+     * (orderDate DESC, id DESC) y sin consulta de count
+     * Si el rango viene invertido, se normaliza para que start ≤ end
+     *
+     * @param start  fecha y hora de inicio inclusive
+     * @param end    fecha y hora de fin inclusive
+     * @param cursor cursor opaco devuelto por la página anterior, null para la
+     *               primera página
+     * @param size   tamaño de página, debe ser > 0
+     * @return página de órdenes mapeadas a DTO con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderCursorPageDTO scrollByOrderDateBetween(@NotNull LocalDateTime start, @NotNull LocalDateTime end,
+            String cursor, @Positive int size) {
+
+        LocalDateTime[] r = normalize(start, end);
+        Limit limit = Limit.of(size + 1);
+        if (cursor == null) {
+            return loadCursorPage(orderRepository.findFirstPositionsByOrderDateBetween(r[0], r[1], limit), size);
+        }
+        OrderCursors.Position after = orderCursors.decode(cursor);
+        return loadCursorPage(orderRepository.findPositionsByOrderDateBetweenAfter(
+                r[0], r[1], after.orderDate(), after.id(), limit), size);
     }
 
 }
@@ -0,0 +1,55 @@
+package com.delogica.springboot.service.impl;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.model.OutboxEvent;
+import com.delogica.springboot.outbox.OrderEventType;
+import com.delogica.springboot.repository.OutboxEventRepository;
+import com.delogica.springboot.service.interfaces.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Servicio de escritura en el outbox
+ * Exige una transacción activa (MANDATORY): el evento solo tiene sentido si se
+ * confirma junto con el cambio del pedido que describe
+ */
+@Service
+@Validated
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    static final String ORDER_AGGREGATE = "Order";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Guarda el evento con el estado del pedido serializado a JSON
+     *
+     * @param type  tipo de evento
+     * @param order pedido tras el cambio
+     * @throws IllegalArgumentException si el pedido no se puede serializar
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderEvent(@NotNull OrderEventType type, @NotNull OrderOutputDTO order) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(ORDER_AGGREGATE);
+        event.setAggregateId(order.getOrderId());
+        event.setEventType(type.name());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(order));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se puede serializar el pedido con id: " + order.getOrderId(), e);
+        }
+        outboxEventRepository.save(event);
+    }
+}
@@ -1,23 +1,38 @@
 package com.delogica.springboot.service.impl;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import com.delogica.springboot.concurrency.RetryOnConflict;
+import com.delogica.springboot.config.CacheConfig;
 import com.delogica.springboot.dto.ProductInputDTO;
 import com.delogica.springboot.dto.ProductOutputDTO;
 import com.delogica.springboot.exceptions.NotFoundException;
 import com.delogica.springboot.exceptions.ResourceAlreadyExistsException;
+import com.delogica.springboot.exceptions.VersionConflictException;
 import com.delogica.springboot.mapper.ProductMapper;
 import com.delogica.springboot.model.Product;
 import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.search.ProductChangedEvent;
+import com.delogica.springboot.search.ProductSearchIndex;
 import com.delogica.springboot.service.interfaces.ProductService;
 import com.delogica.springboot.utils.Pageables;
+import com.delogica.springboot.utils.Versions;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -29,6 +44,8 @@ import lombok.RequiredArgsConstructor;
  * Servicio de productos que orquesta operaciones de consulta y comando
  * Usa ProductRepository para la persistencia y ProductMapper para el mapeo DTO
  * ↔ entidad
+ * Las lecturas por id, por SKU y la lista de activos se sirven desde caché y
+ * las escrituras invalidan exactamente las entradas afectadas
  */
 @Service
 @Validated
@@ -38,15 +55,40 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final Pageables pageables;
+    private final CacheManager cacheManager;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Devuelve una página de productos según los criterios de paginación.
      * Si el pageable no trae sort, aplica el orden por defecto (name ASC, id DESC).
+     * La consulta proyecta directamente en el DTO, sin cargar entidades.
      */
     @Override
     public Page<ProductOutputDTO> findAll(Pageable pageable) {
         Pageable effective = pageables.withDefaultSort(pageable, pageables.productDefaultSort());
-        return productRepository.findAll(effective).map(productMapper::toDto);
+        return productRepository.findAllAsDto(effective);
+    }
+
+    /**
+     * Como findAll, pero sin la consulta de count: lee una fila de más para
+     * saber si hay página siguiente
+     */
+    @Override
+    public Slice<ProductOutputDTO> sliceAll(Pageable pageable) {
+        Pageable effective = pageables.withDefaultSort(pageable, pageables.productDefaultSort());
+        return productRepository.sliceAllAsDto(effective);
+    }
+
+    /**
+     * Total de productos para las vistas que lo muestran junto a sliceAll
+     * Se cachea con TTL (app.pagination.count-ttl) y no se invalida con las
+     * escrituras, así que es aproximado
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.LIST_COUNTS, key = "'products'")
+    public long countAll() {
+        return productRepository.count();
     }
 
     /**
@@ -64,12 +106,43 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca productos por nombre o SKU en el índice en memoria, admitiendo
+     * términos completos, prefijos y fragmentos interiores, sin distinguir
+     * mayúsculas ni acentos
+     * Los resultados se ordenan por relevancia y solo se lee de la BBDD la página
+     * pedida
+     *
+     * @param query    texto a buscar
+     * @param pageable criterios de paginación, el orden lo fija la relevancia
+     * @return página de productos mapeados a DTO
+     */
+    @Override
+    public Page<ProductOutputDTO> search(@NotBlank String query, Pageable pageable) {
+        Pageable effective = pageables.orDefault(pageable);
+        List<ProductSearchIndex.Hit> hits = productSearchIndex.search(query);
+
+        int from = (int) Math.min(effective.getOffset(), hits.size());
+        int to = Math.min(from + effective.getPageSize(), hits.size());
+        List<Long> ids = hits.subList(from, to).stream().map(ProductSearchIndex.Hit::productId).toList();
+
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductOutputDTO> content = ids.stream()
+                .filter(byId::containsKey)
+                .map(id -> productMapper.toDto(byId.get(id)))
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, effective, hits.size());
+    }
+
     /**
      * Devuelve todos los productos marcados como activos
      *
      * @return lista de productos activos mapeados a DTO
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.ACTIVE_PRODUCTS, key = "'all'")
     public List<ProductOutputDTO> findByIsActiveTrue() {
         List<Product> productActive = productRepository.findByActiveTrue();
 
@@ -78,6 +151,38 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene un producto por su identificador
+     *
+     * @param id identificador del producto
+     * @return producto mapeado a DTO
+     * @throws NotFoundException si no existe un producto con el id indicado
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
+    public ProductOutputDTO findById(@NotNull @Positive Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Producto no encontrado con id: " + id));
+
+        return productMapper.toDto(product);
+    }
+
+    /**
+     * Obtiene un producto por su SKU
+     *
+     * @param sku SKU del producto
+     * @return producto mapeado a DTO
+     * @throws NotFoundException si no existe un producto con el SKU indicado
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_SKU, key = "#sku")
+    public ProductOutputDTO findBySku(@NotBlank String sku) {
+        Product product = productRepository.findBySku(sku)
+                .orElseThrow(() -> new NotFoundException("Producto no encontrado con SKU: " + sku));
+
+        return productMapper.toDto(product);
+    }
+
     /**
      * Crea un nuevo producto si el SKU no existe
      *
@@ -98,6 +203,8 @@ public class ProductServiceImpl implements ProductService {
         Product product = productMapper.toEntity(dto);
 
         Product savedProduct = productRepository.save(product);
+        evict(savedProduct.getId(), savedProduct.getSku());
+        publishChange(savedProduct);
 
         ProductOutputDTO outputDTO = productMapper.toDto(savedProduct);
 
@@ -107,16 +214,45 @@ public class ProductServiceImpl implements ProductService {
     /**
      * Actualiza un producto existente por id
      *
+     * Si otra operación modifica el producto a la vez, se reintenta
+     * El stock del DTO no se aplica: se cambia con StockService.restock
+     *
      * @param id  identificador del producto a actualizar
      * @param dto datos a modificar del producto
      * @return producto actualizado mapeado a DTO
      * @throws NotFoundException si no existe un producto con el id indicado
      */
     @Override
+    @Transactional
+    @RetryOnConflict
     public ProductOutputDTO update(@NotNull @Positive Long id, @Valid @NotNull ProductInputDTO dto) {
+        return update(id, dto, null);
+    }
+
+    /**
+     * Actualiza un producto solo si sigue en la versión indicada (estilo If-Match)
+     * La versión se comprueba al leer y de nuevo en el UPDATE, de modo que un
+     * cambio concurrente entre ambos tampoco se sobrescribe; las reservas de
+     * stock también incrementan la versión
+     * El stock no se modifica aquí (ver StockService.restock): una escritura
+     * absoluta perdería las reservas y liberaciones concurrentes
+     *
+     * @param id              identificador del producto a actualizar
+     * @param dto             datos a modificar del producto
+     * @param expectedVersion versión que el cliente leyó; null para no condicionar
+     * @return producto actualizado mapeado a DTO
+     * @throws NotFoundException         si no existe un producto con el id indicado
+     * @throws VersionConflictException si el producto ya no está en la versión
+     *                                   esperada
+     */
+    @Override
+    @Transactional
+    public ProductOutputDTO update(@NotNull @Positive Long id, @Valid @NotNull ProductInputDTO dto,
+            Long expectedVersion) {
 
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Producto no encontrado con id: " + id));
+        Versions.checkExpected("Producto", id, expectedVersion, product.getVersion());
 
         // Evita duplicados de SKU al actualizar
         if (!product.getSku().equalsIgnoreCase(dto.getSku())) {
@@ -127,14 +263,19 @@ public class ProductServiceImpl implements ProductService {
                     });
         }
 
+        String previousSku = product.getSku();
+
         product.setName(dto.getName());
         product.setSku(dto.getSku());
         product.setPrice(dto.getPrice());
-        product.setStock(dto.getStock());
         product.setActive(dto.getActive());
 
-        return productMapper.toDto(productRepository.save(product));
+        // flush: la versión devuelta debe ser la nueva y un conflicto debe saltar aquí
+        Product saved = productRepository.saveAndFlush(product);
+        evict(id, previousSku, saved.getSku());
+        publishChange(saved);
 
+        return productMapper.toDto(saved);
     }
 
     /**
@@ -144,12 +285,43 @@ public class ProductServiceImpl implements ProductService {
      * @throws NotFoundException si no existe un producto con el id indicado
      */
     @Override
+    @Transactional
+    @RetryOnConflict
     public void delete(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Producto no encontrado con id: " + id));
 
         product.setActive(false);
         productRepository.save(product);
+        evict(id, product.getSku());
+        publishChange(product);
+    }
+
+    private void publishChange(Product product) {
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product.getName(), product.getSku(),
+                product.isActive()));
+    }
+
+    /**
+     * Invalida las entradas de caché de un producto: por id, por cada SKU
+     * indicado y la lista de activos
+     */
+    private void evict(Long id, String... skus) {
+        evict(CacheConfig.PRODUCTS, id);
+        for (String sku : skus) {
+            evict(CacheConfig.PRODUCTS_BY_SKU, sku);
+        }
+        Cache active = cacheManager.getCache(CacheConfig.ACTIVE_PRODUCTS);
+        if (active != null) {
+            active.clear();
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
     }
 
 }
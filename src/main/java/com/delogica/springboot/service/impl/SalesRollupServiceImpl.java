@@ -0,0 +1,272 @@
+package com.delogica.springboot.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+
+import com.delogica.springboot.dto.DailySalesDTO;
+import com.delogica.springboot.dto.ProductSalesDTO;
+import com.delogica.springboot.dto.StatusSalesDTO;
+import com.delogica.springboot.model.Order;
+import com.delogica.springboot.model.OrderItem;
+import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.repository.SalesDailyProductRepository;
+import com.delogica.springboot.repository.SalesDailyStatusRepository;
+import com.delogica.springboot.service.interfaces.SalesRollupService;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Servicio de agregados diarios de ventas
+ * Mantiene sales_daily_status y sales_daily_product con upserts de incremento
+ * en la misma transacción que el cambio del pedido, de modo que las consultas
+ * por rango leen como mucho una fila por día y estado (o producto) en lugar de
+ * sumar orders y orders_items completos
+ * El importe se calcula con los subtotales de las líneas, igual que
+ * Order.total, porque el total no se recalcula hasta el flush
+ */
+@Service
+@Validated
+public class SalesRollupServiceImpl implements SalesRollupService {
+
+    // Estados que cuentan como venta cuando no se indica ninguno
+    private static final Set<OrderStatus> SALES_STATUSES = EnumSet.complementOf(EnumSet.of(OrderStatus.CANCELLED));
+
+    private final SalesDailyStatusRepository statusRepository;
+    private final SalesDailyProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public SalesRollupServiceImpl(SalesDailyStatusRepository statusRepository,
+            SalesDailyProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.statusRepository = statusRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public void add(@NotNull Order order) {
+        apply(order, order.getStatus(), 1);
+    }
+
+    @Override
+    @Transactional
+    public void remove(@NotNull Order order) {
+        apply(order, order.getStatus(), -1);
+    }
+
+    @Override
+    @Transactional
+    public void move(@NotNull Order order, @NotNull OrderStatus previous) {
+        if (previous == order.getStatus()) {
+            return;
+        }
+        apply(order, previous, -1);
+        apply(order, order.getStatus(), 1);
+    }
+
+    /**
+     * Traslada al estado indicado la aportación de varios pedidos con dos
+     * consultas agregadas, sin cargarlos
+     * Debe llamarse antes del UPDATE de estado, ya que lee el estado previo de
+     * cada pedido de la BBDD
+     *
+     * @param orderIds pedidos que van a cambiar de estado
+     * @param target   estado de destino
+     */
+    @Override
+    @Transactional
+    public void moveAll(@NotNull Collection<Long> orderIds, @NotNull OrderStatus target) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        for (Object[] row : statusRepository.contributionsOf(orderIds)) {
+            LocalDate day = (LocalDate) row[0];
+            OrderStatus previous = (OrderStatus) row[1];
+            long orders = ((Number) row[2]).longValue();
+            BigDecimal revenue = (BigDecimal) row[3];
+            if (previous != target) {
+                statusRepository.increment(day, previous.name(), -orders, revenue.negate());
+                statusRepository.increment(day, target.name(), orders, revenue);
+            }
+        }
+        for (Object[] row : productRepository.contributionsOf(orderIds)) {
+            LocalDate day = (LocalDate) row[0];
+            Long productId = (Long) row[1];
+            OrderStatus previous = (OrderStatus) row[2];
+            long units = ((Number) row[3]).longValue();
+            BigDecimal revenue = (BigDecimal) row[4];
+            if (previous != target) {
+                productRepository.increment(day, productId, previous.name(), -units, revenue.negate());
+                productRepository.increment(day, productId, target.name(), units, revenue);
+            }
+        }
+    }
+
+    @Override
+    public Contribution contributionOf(@NotNull Order order) {
+        Map<Long, Long> units = new TreeMap<>();
+        Map<Long, BigDecimal> revenueByProduct = new TreeMap<>();
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (OrderItem item : order.getItems()) {
+            Long productId = item.getProduct().getId();
+            units.merge(productId, (long) item.getQuantity(), Long::sum);
+            revenueByProduct.merge(productId, item.getSubtotal(), BigDecimal::add);
+            revenue = revenue.add(item.getSubtotal());
+        }
+        return new Contribution(order.getOrderDate().toLocalDate(), order.getStatus(), revenue, units,
+                revenueByProduct);
+    }
+
+    /**
+     * Sustituye la aportación previa de un pedido por la actual
+     * Si el día y el estado no cambian, solo se escriben los productos cuyas
+     * unidades o importe varían (y la fila del estado si varía el importe), de
+     * modo que el coste depende del tamaño del cambio y no del pedido
+     *
+     * @param before aportación calculada antes de modificar el pedido
+     * @param order  pedido ya modificado
+     */
+    @Override
+    @Transactional
+    public void replace(@NotNull Contribution before, @NotNull Order order) {
+        Contribution after = contributionOf(order);
+        if (!before.day().equals(after.day()) || before.status() != after.status()) {
+            apply(before, -1);
+            apply(after, 1);
+            return;
+        }
+
+        LocalDate day = after.day();
+        String status = after.status().name();
+        BigDecimal revenue = after.revenue().subtract(before.revenue());
+        if (revenue.signum() != 0) {
+            statusRepository.increment(day, status, 0, revenue);
+        }
+
+        Map<Long, Long> units = new TreeMap<>(after.units());
+        before.units().forEach((productId, quantity) -> units.merge(productId, -quantity, Long::sum));
+        units.forEach((productId, quantity) -> {
+            BigDecimal productRevenue = after.revenueByProduct().getOrDefault(productId, BigDecimal.ZERO)
+                    .subtract(before.revenueByProduct().getOrDefault(productId, BigDecimal.ZERO));
+            if (quantity != 0 || productRevenue.signum() != 0) {
+                productRepository.increment(day, productId, status, quantity, productRevenue);
+            }
+        });
+    }
+
+    private void apply(Order order, OrderStatus status, int sign) {
+        Contribution contribution = contributionOf(order);
+        apply(new Contribution(contribution.day(), status, contribution.revenue(), contribution.units(),
+                contribution.revenueByProduct()), sign);
+    }
+
+    /**
+     * Aplica la aportación con el signo indicado
+     * Los productos se actualizan en orden ascendente de id, como el stock, para
+     * que dos pedidos concurrentes no se bloqueen mutuamente
+     */
+    private void apply(Contribution contribution, int sign) {
+        LocalDate day = contribution.day();
+        String status = contribution.status().name();
+        BigDecimal signum = BigDecimal.valueOf(sign);
+        statusRepository.increment(day, status, sign, contribution.revenue().multiply(signum));
+        contribution.units().forEach((productId, quantity) -> productRepository.increment(day, productId, status,
+                sign * quantity, contribution.revenueByProduct().get(productId).multiply(signum)));
+    }
+
+    /**
+     * Reconstruye los agregados de los días indicados a partir de orders y
+     * orders_items, para la carga inicial o para corregir desviaciones
+     * Cada día se borra y recalcula en su propia transacción, de modo que los
+     * bloqueos duran poco y un fallo no deshace los días ya reconstruidos
+     * Conviene lanzarlo con poca actividad: los pedidos del día que se confirmen
+     * mientras se reconstruye ese mismo día pueden contarse dos veces o ninguna
+     * Si el rango viene invertido, se normaliza para que from ≤ to
+     *
+     * @param from primer día inclusive
+     * @param to   último día inclusive
+     * @return número de días reconstruidos
+     */
+    @Override
+    public int rebuild(@NotNull LocalDate from, @NotNull LocalDate to) {
+        int days = 0;
+        for (LocalDate day = min(from, to); !day.isAfter(max(from, to)); day = day.plusDays(1)) {
+            LocalDate current = day;
+            transactionTemplate.executeWithoutResult(status -> {
+                statusRepository.deleteBySalesDateBetween(current, current);
+                productRepository.deleteBySalesDateBetween(current, current);
+                statusRepository.rebuild(current.atStartOfDay(), current.plusDays(1).atStartOfDay());
+                productRepository.rebuild(current.atStartOfDay(), current.plusDays(1).atStartOfDay());
+            });
+            days++;
+        }
+        return days;
+    }
+
+    /**
+     * Devuelve pedidos e importe por día dentro del rango
+     *
+     * @param from     primer día inclusive
+     * @param to       último día inclusive
+     * @param statuses estados a incluir; si es null o vacío, todos salvo CANCELLED
+     * @return un elemento por día con actividad, en orden de fecha
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailySalesDTO> findDailySales(@NotNull LocalDate from, @NotNull LocalDate to,
+            Collection<OrderStatus> statuses) {
+        return statusRepository.sumByDay(min(from, to), max(from, to), orDefault(statuses));
+    }
+
+    /**
+     * Devuelve unidades e importe por producto dentro del rango
+     *
+     * @param from     primer día inclusive
+     * @param to       último día inclusive
+     * @param statuses estados a incluir; si es null o vacío, todos salvo CANCELLED
+     * @return un elemento por producto vendido, de mayor a menor importe
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSalesDTO> findProductSales(@NotNull LocalDate from, @NotNull LocalDate to,
+            Collection<OrderStatus> statuses) {
+        return productRepository.sumByProduct(min(from, to), max(from, to), orDefault(statuses));
+    }
+
+    /**
+     * Devuelve pedidos e importe por estado dentro del rango
+     *
+     * @param from primer día inclusive
+     * @param to   último día inclusive
+     * @return un elemento por estado con pedidos
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<StatusSalesDTO> findStatusSales(@NotNull LocalDate from, @NotNull LocalDate to) {
+        return statusRepository.sumByStatus(min(from, to), max(from, to));
+    }
+
+    private static Collection<OrderStatus> orDefault(Collection<OrderStatus> statuses) {
+        return statuses == null || statuses.isEmpty() ? SALES_STATUSES : statuses;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return b.isBefore(a) ? b : a;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return b.isBefore(a) ? a : b;
+    }
+}
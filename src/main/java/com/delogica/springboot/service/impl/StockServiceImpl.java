@@ -0,0 +1,118 @@
+package com.delogica.springboot.service.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import com.delogica.springboot.cache.SecondLevelCacheInvalidator;
+import com.delogica.springboot.exceptions.NotFoundException;
+import com.delogica.springboot.model.Product;
+import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.service.interfaces.StockService;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Servicio de reserva de stock
+ * Cada variación se aplica con un UPDATE condicional en la BBDD, sin leer y
+ * reescribir Product.stock, por lo que no se pierden actualizaciones con
+ * pedidos concurrentes sobre el mismo producto
+ * Los productos se bloquean siempre en orden ascendente de id para evitar
+ * interbloqueos entre transacciones que reservan varios productos
+ * Como el UPDATE no pasa por la entidad, los productos tocados se bloquean en
+ * la caché de segundo nivel antes de modificarlos y se liberan al terminar la
+ * transacción, para que ninguna lectura concurrente deje en caché el stock
+ * anterior
+ */
+@Service
+@Validated
+@RequiredArgsConstructor
+public class StockServiceImpl implements StockService {
+
+    private final ProductRepository productRepository;
+    private final SecondLevelCacheInvalidator cacheInvalidator;
+
+    /**
+     * Descuenta el stock de cada producto indicado
+     *
+     * @param quantitiesByProduct cantidad a reservar por id de producto
+     * @throws NotFoundException     si algún producto no existe
+     * @throws IllegalStateException si algún producto no tiene stock suficiente,
+     *                               en cuyo caso la transacción se revierte entera
+     */
+    @Override
+    @Transactional
+    public void reserve(@NotNull Map<Long, Integer> quantitiesByProduct) {
+        adjust(quantitiesByProduct);
+    }
+
+    /**
+     * Devuelve al stock las cantidades indicadas
+     *
+     * @param quantitiesByProduct cantidad a liberar por id de producto
+     * @throws NotFoundException si algún producto no existe
+     */
+    @Override
+    @Transactional
+    public void release(@NotNull Map<Long, Integer> quantitiesByProduct) {
+        Map<Long, Integer> negated = new HashMap<>();
+        quantitiesByProduct.forEach((productId, quantity) -> negated.put(productId, -quantity));
+        adjust(negated);
+    }
+
+    /**
+     * Repone o retira unidades de un producto (entradas de almacén, ajustes de
+     * inventario) con el mismo UPDATE relativo que las reservas, de modo que no
+     * pisa las reservas y liberaciones concurrentes
+     * Es la única vía para cambiar el stock de un producto existente: la
+     * actualización general del producto no lo modifica
+     *
+     * @param productId id del producto
+     * @param quantity  unidades a reponer (positivo) o a retirar (negativo)
+     * @throws NotFoundException     si el producto no existe
+     * @throws IllegalStateException si se retiran más unidades de las que hay
+     */
+    @Override
+    @Transactional
+    public void restock(@NotNull @Positive Long productId, int quantity) {
+        adjust(Map.of(productId, -quantity));
+    }
+
+    /**
+     * Aplica variaciones netas de stock en una sola pasada ordenada por id
+     *
+     * @param deltaByProduct positivo para reservar, negativo para liberar
+     * @throws NotFoundException     si algún producto no existe
+     * @throws IllegalStateException si algún producto no tiene stock suficiente
+     */
+    @Override
+    @Transactional
+    public void adjust(@NotNull Map<Long, Integer> deltaByProduct) {
+        Map<Long, Integer> changes = new TreeMap<>(deltaByProduct);
+        changes.values().removeIf(delta -> delta == 0);
+        cacheInvalidator.lockUntilCompletion(Product.class, changes.keySet());
+
+        for (Map.Entry<Long, Integer> entry : changes.entrySet()) {
+            Long productId = entry.getKey();
+            int delta = entry.getValue();
+
+            int updated = delta > 0
+                    ? productRepository.discountStock(productId, delta)
+                    : productRepository.incrementStock(productId, -delta);
+
+            if (updated == 0) {
+                if (!productRepository.existsById(productId)) {
+                    throw new NotFoundException("Producto no encontrado con id: " + productId);
+                }
+                throw new IllegalStateException("Stock insuficiente para el producto con id: " + productId);
+            }
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import com.delogica.springboot.dto.AddressInputDTO;
 import com.delogica.springboot.dto.AddressOutputDTO;
@@ -15,6 +16,12 @@ public interface AddressService {
 	 // Obtener todas las direcciones de un cliente
     Page<AddressOutputDTO> findAllByCustomerId(Long customerId, Pageable pageable);
 
+    // Listado sin count: solo indica si hay página siguiente
+    Slice<AddressOutputDTO> sliceAllByCustomerId(Long customerId, Pageable pageable);
+
+    // Total aproximado (cacheado con TTL) para acompañar a sliceAllByCustomerId
+    long countByCustomerId(Long customerId);
+
     // Obtener la dirección por defecto de un cliente
     List<AddressOutputDTO> findByCustomerIdAndIsDefaultTrue(Long customerId);
 
@@ -2,6 +2,7 @@ package com.delogica.springboot.service.interfaces;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import com.delogica.springboot.dto.CustomerInputDTO;
 import com.delogica.springboot.dto.CustomerOutputDTO;
@@ -15,10 +16,19 @@ public interface CustomerService {
 	CustomerOutputDTO create(CustomerInputDTO customer);
 	
 	CustomerOutputDTO updateById(CustomerInputDTO customer, Long id);
+
+	// Actualización condicional: falla si el cliente ya no está en expectedVersion
+	CustomerOutputDTO updateById(CustomerInputDTO customer, Long id, Long expectedVersion);
 	
 	void delete(Long id);
 
 	Page<CustomerOutputDTO> findAll(Pageable pageable);
+
+	// Listado sin count: solo indica si hay página siguiente
+	Slice<CustomerOutputDTO> sliceAll(Pageable pageable);
+
+	// Total aproximado (cacheado con TTL) para acompañar a sliceAll
+	long countAll();
 	
 	
 }
@@ -1,12 +1,20 @@
 package com.delogica.springboot.service.interfaces;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import com.delogica.springboot.dto.ExportFormat;
+import com.delogica.springboot.dto.OrderBulkReportDTO;
+import com.delogica.springboot.dto.OrderCursorPageDTO;
 import com.delogica.springboot.dto.OrderInputDTO;
 import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.dto.OrderStatusBulkResultDTO;
 import com.delogica.springboot.model.OrderStatus;
 
 public interface OrderService {
@@ -16,13 +24,51 @@ public interface OrderService {
 	Page<OrderOutputDTO> findByCustomerIdAndOrderDateBetween(Long customerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 	
 	Page<OrderOutputDTO> findByOrderDateBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+	// Listados sin count: solo indican si hay página siguiente
+	Slice<OrderOutputDTO> sliceByCustomerId(Long customerId, Pageable pageable);
+
+	Slice<OrderOutputDTO> sliceByCustomerIdAndOrderDateBetween(Long customerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+	Slice<OrderOutputDTO> sliceByOrderDateBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+	// Totales aproximados (cacheados con TTL) para acompañar a los listados sin count
+	long countByCustomerId(Long customerId);
+
+	long countByCustomerIdAndOrderDateBetween(Long customerId, LocalDateTime start, LocalDateTime end);
+
+	long countByOrderDateBetween(LocalDateTime start, LocalDateTime end);
+
+	// Paginación por cursor (keyset): latencia constante con independencia de la profundidad y sin count
+	OrderCursorPageDTO scrollByCustomerId(Long customerId, String cursor, int size);
+
+	OrderCursorPageDTO scrollByCustomerIdAndOrderDateBetween(Long customerId, LocalDateTime start, LocalDateTime end, String cursor, int size);
+
+	OrderCursorPageDTO scrollByOrderDateBetween(LocalDateTime start, LocalDateTime end, String cursor, int size);
+
+	// Exportación en streaming de un rango de fechas, con memoria constante sea cual sea el volumen
+	long exportByOrderDateBetween(LocalDateTime start, LocalDateTime end, ExportFormat format, OutputStream out);
 	
 	OrderOutputDTO create(OrderInputDTO order);
+
+	// Alta idempotente: un reintento del cliente con la misma clave y entrada devuelve el pedido original
+	OrderOutputDTO create(String idempotencyKey, OrderInputDTO order);
+
+	// Alta masiva en transacciones por bloques, sin abortar el lote por registros erróneos
+	OrderBulkReportDTO createBulk(List<OrderInputDTO> orders, int chunkSize);
 	
 	OrderOutputDTO update(Long customerId, Long orderId, OrderInputDTO order);
+
+	// Actualización condicional: falla si el pedido ya no está en expectedVersion
+	OrderOutputDTO update(Long customerId, Long orderId, OrderInputDTO order, Long expectedVersion);
 	
 	OrderOutputDTO updateStatus(Long customerId, Long orderId, OrderStatus newStatus);
 
+	OrderOutputDTO updateStatus(Long customerId, Long orderId, OrderStatus newStatus, Long expectedVersion);
+
+	// Cambio de estado masivo con UPDATE por conjuntos, filtrado por los estados de origen permitidos
+	OrderStatusBulkResultDTO updateStatusBulk(Collection<Long> orderIds, OrderStatus newStatus);
+
 	
 	
 	
@@ -0,0 +1,11 @@
+package com.delogica.springboot.service.interfaces;
+
+import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.outbox.OrderEventType;
+
+public interface OutboxService {
+
+	// Registra un evento del pedido en el outbox, dentro de la transacción en curso
+	void recordOrderEvent(OrderEventType type, OrderOutputDTO order);
+
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import com.delogica.springboot.dto.ProductInputDTO;
 import com.delogica.springboot.dto.ProductOutputDTO;
@@ -12,13 +13,28 @@ import com.delogica.springboot.dto.ProductOutputDTO;
 public interface ProductService {
 	Page<ProductOutputDTO> findAll(Pageable pageable);
 
+	// Listado sin count: solo indica si hay página siguiente
+	Slice<ProductOutputDTO> sliceAll(Pageable pageable);
+
+	// Total aproximado (cacheado con TTL) para acompañar a sliceAll
+	long countAll();
+
 	List<ProductOutputDTO> findByName(String name);
 
+	Page<ProductOutputDTO> search(String query, Pageable pageable);
+
 	List<ProductOutputDTO> findByIsActiveTrue();
 
+	ProductOutputDTO findById(Long id);
+
+	ProductOutputDTO findBySku(String sku);
+
 	ProductOutputDTO create(ProductInputDTO dto);
 
 	ProductOutputDTO update(Long id, ProductInputDTO dto);
 
+	// Actualización condicional: falla si el producto ya no está en expectedVersion
+	ProductOutputDTO update(Long id, ProductInputDTO dto, Long expectedVersion);
+
 	void delete(Long id);
 }
@@ -0,0 +1,49 @@
+package com.delogica.springboot.service.interfaces;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.delogica.springboot.dto.DailySalesDTO;
+import com.delogica.springboot.dto.ProductSalesDTO;
+import com.delogica.springboot.dto.StatusSalesDTO;
+import com.delogica.springboot.model.Order;
+import com.delogica.springboot.model.OrderStatus;
+
+public interface SalesRollupService {
+
+	// Aportación de un pedido a los agregados: importe total y unidades e importe por producto
+	record Contribution(LocalDate day, OrderStatus status, BigDecimal revenue, Map<Long, Long> units,
+			Map<Long, BigDecimal> revenueByProduct) {
+	}
+
+	// Suma la aportación del pedido (en su estado actual) a los agregados de su día
+	void add(Order order);
+
+	// Resta la aportación del pedido (en su estado actual) a los agregados de su día
+	void remove(Order order);
+
+	// Calcula la aportación actual del pedido, para comparar tras modificarlo
+	Contribution contributionOf(Order order);
+
+	// Sustituye la aportación previa por la actual aplicando solo las diferencias
+	void replace(Contribution before, Order order);
+
+	// Traslada la aportación del pedido del estado previo al actual
+	void move(Order order, OrderStatus previous);
+
+	// Traslada al estado indicado la aportación de un conjunto de pedidos, antes de cambiarles el estado en BBDD
+	void moveAll(Collection<Long> orderIds, OrderStatus target);
+
+	// Recalcula desde orders los agregados de los días indicados, un día por transacción
+	int rebuild(LocalDate from, LocalDate to);
+
+	List<DailySalesDTO> findDailySales(LocalDate from, LocalDate to, Collection<OrderStatus> statuses);
+
+	List<ProductSalesDTO> findProductSales(LocalDate from, LocalDate to, Collection<OrderStatus> statuses);
+
+	List<StatusSalesDTO> findStatusSales(LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,19 @@
+package com.delogica.springboot.service.interfaces;
+
+import java.util.Map;
+
+public interface StockService {
+
+	// Reservar (descontar) stock por producto: productId -> cantidad
+	void reserve(Map<Long, Integer> quantitiesByProduct);
+
+	// Liberar (devolver) stock por producto: productId -> cantidad
+	void release(Map<Long, Integer> quantitiesByProduct);
+
+	// Aplicar variaciones netas: positivo reserva, negativo libera
+	void adjust(Map<Long, Integer> deltaByProduct);
+
+	// Reponer (positivo) o retirar (negativo) unidades de un producto fuera de los pedidos
+	void restock(Long productId, int quantity);
+
+}
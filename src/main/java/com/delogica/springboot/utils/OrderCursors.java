@@ -0,0 +1,34 @@
+package com.delogica.springboot.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Codifica y decodifica el cursor opaco de la paginación por keyset de pedidos
+ * El cursor guarda la clave de orden (orderDate, id) del último pedido servido
+ */
+@Component
+public class OrderCursors {
+
+  public record Position(LocalDateTime orderDate, Long id) {
+  }
+
+  public String encode(LocalDateTime orderDate, Long id) {
+    String raw = orderDate + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public Position decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int sep = raw.indexOf('|');
+      return new Position(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Cursor de paginación no válido");
+    }
+  }
+}
@@ -9,6 +9,10 @@ import org.springframework.stereotype.Component;
 public class Pageables {
   private static final int DEFAULT_SIZE = 20;
 
+  public Pageable orDefault(Pageable pageable) {
+    return pageable == null ? PageRequest.of(0, DEFAULT_SIZE) : pageable;
+  }
+
   // ORDERS
 
   public Pageable withDefaultSort(Pageable pageable, Sort fallback) {
@@ -0,0 +1,28 @@
+package com.delogica.springboot.utils;
+
+import com.delogica.springboot.exceptions.VersionConflictException;
+
+/**
+ * Comprobación de versión para actualizaciones condicionales (estilo If-Match)
+ */
+public final class Versions {
+
+    private Versions() {
+    }
+
+    /**
+     * Verifica que el recurso sigue en la versión que el cliente leyó
+     *
+     * @param resource nombre del recurso para el mensaje
+     * @param id       id del recurso
+     * @param expected versión esperada por el cliente; null para no condicionar
+     * @param actual   versión actual del recurso
+     * @throws VersionConflictException si la versión esperada no coincide
+     */
+    public static void checkExpected(String resource, Long id, Long expected, Long actual) {
+        if (expected != null && !expected.equals(actual)) {
+            throw new VersionConflictException(resource + " con id: " + id
+                    + " modificado por otra operación (versión esperada " + expected + ", actual " + actual + ")");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+-- Completa el esquema de V1: columnas de versión (bloqueo optimista), email
+-- normalizado con su clave única, fecha de modificación de pedidos y tablas nuevas
+-- En una BBDD registrada como V1 las tablas ya tienen filas: las columnas nuevas
+-- se rellenan antes de añadir sus restricciones
+
+alter table customers add column version bigint not null default 0;
+alter table products add column version bigint not null default 0;
+alter table orders add column version bigint not null default 0;
+alter table orders add column updated_at datetime(6);
+
+-- Mismo criterio que Customer.normalizeEmail
+alter table customers add column email_normalized varchar(255);
+update customers set email_normalized = lower(trim(email));
+
+-- Emails que solo diferían en mayúsculas o espacios: conserva la clave el cliente
+-- más antiguo y los demás quedan marcados con su id para revisarlos a mano
+-- (la tabla derivada evita leer y modificar customers en la misma sentencia en MySQL)
+update customers set email_normalized = concat(email_normalized, '#', id)
+where id in (
+    select id from (
+        select c.id from customers c
+        where exists (
+            select 1 from customers o
+            where o.email_normalized = c.email_normalized and o.id < c.id
+        )
+    ) duplicated
+);
+
+alter table customers add constraint uk_customers_email unique (email_normalized);
+
+-- Outbox de eventos de pedidos: el relay lo recorre por clave primaria
+-- long_text_type: longtext en MySQL; en H2 (modo MySQL) longtext sería varchar
+create table outbox_events (
+    id bigint not null,
+    aggregate_type varchar(50) not null,
+    aggregate_id bigint not null,
+    event_type varchar(50) not null,
+    payload ${long_text_type} not null,
+    created_at datetime(6) not null,
+    primary key (id)
+);
+
+-- Agregados diarios de ventas: las claves primarias empiezan por la fecha
+-- para servir las consultas por rango de días
+-- Con pedidos anteriores, se rellenan con SalesRollupService.rebuild
+create table sales_daily_status (
+    sales_date date not null,
+    status enum ('CANCELLED','CREATED','PAID','SHIPPED') not null,
+    order_count bigint not null,
+    revenue decimal(19,2) not null,
+    primary key (sales_date, status)
+);
+
+create table sales_daily_product (
+    sales_date date not null,
+    product_id bigint not null,
+    status enum ('CANCELLED','CREATED','PAID','SHIPPED') not null,
+    units bigint not null,
+    revenue decimal(19,2) not null,
+    primary key (sales_date, product_id, status)
+);
@@ -0,0 +1,64 @@
+-- Esquema inicial: el que generaba Hibernate antes de las migraciones
+-- Una BBDD existente sin historial de Flyway se registra como esta versión
+-- (spring.flyway.baseline-on-migrate) y recibe solo las siguientes, que
+-- completan el esquema actual sobre los datos que ya tenga
+-- Las claves foráneas se añaden en V3, después de los índices de V2
+-- SQL común a MySQL 8 y a H2 en modo MySQL (tests); los generadores de ids,
+-- que difieren entre ambos, están en db/migration/{vendor}
+-- Los tipos coinciden con el mapeo de Hibernate (spring.jpa.hibernate.ddl-auto=validate)
+
+create table customers (
+    id bigint not null,
+    fullname varchar(255) not null,
+    email varchar(255) not null,
+    phone varchar(6) not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_customers_phone unique (phone)
+);
+
+create table addresses (
+    id bigint not null,
+    customer_id bigint not null,
+    line1 varchar(255) not null,
+    line2 varchar(255),
+    city varchar(255) not null,
+    postal_code varchar(255) not null,
+    country varchar(255) not null,
+    is_default boolean,
+    primary key (id)
+);
+
+create table products (
+    id bigint not null,
+    sku varchar(255) not null,
+    name varchar(255) not null,
+    price decimal(38,2) not null,
+    stock integer,
+    active boolean not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_products_sku unique (sku),
+    constraint ck_products_stock check (stock >= 0)
+);
+
+create table orders (
+    id bigint not null,
+    customer_id bigint not null,
+    shipping_address_id bigint,
+    order_date datetime(6),
+    status enum ('CANCELLED','CREATED','PAID','SHIPPED'),
+    total decimal(19,2) not null,
+    primary key (id)
+);
+
+create table orders_items (
+    id bigint not null,
+    order_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    unit_price decimal(19,2) not null,
+    primary key (id)
+);
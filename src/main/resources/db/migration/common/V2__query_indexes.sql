@@ -0,0 +1,28 @@
+-- Índices compuestos para las consultas de los repositorios
+-- Cada índice recoge las columnas del filtro y, a continuación, las del orden,
+-- de modo que la BBDD no necesita ordenar ni leer la tabla para paginar;
+-- RepositoryIndexUsageTests comprueba con EXPLAIN que se usan
+
+-- OrderRepository: findByCustomerId, findIdsByCustomerId*, findFirstIdsByCustomerId*,
+-- findIdsByCustomerIdAfter (keyset por order_date desc, id desc) y sus variantes por rango de fechas
+create index ix_orders_customer_date on orders (customer_id, order_date, id);
+
+-- OrderRepository: findByOrderDateBetween, findIdsByOrderDateBetween*, keyset sin cliente
+-- y streamByOrderDateBetween (exportaciones); también SalesDaily*Repository.rebuild
+create index ix_orders_date on orders (order_date, id);
+
+-- Clave foránea de la dirección de envío (V3)
+create index ix_orders_shipping_address on orders (shipping_address_id);
+
+-- OrderItemRepository: findByOrderId, deleteByOrderId y sumQuantitiesByProduct;
+-- con product_id y quantity la suma por producto se resuelve solo con el índice
+create index ix_orders_items_order on orders_items (order_id, product_id, quantity);
+
+-- Clave foránea del producto (V3)
+create index ix_orders_items_product on orders_items (product_id);
+
+-- AddressRepository: findByCustomerId, findAllByCustomerId, findByCustomerIdAndIsDefaultTrue
+create index ix_addresses_customer_default on addresses (customer_id, is_default);
+
+-- ProductRepository: findByActiveTrue
+create index ix_products_active on products (active, id);
@@ -0,0 +1,19 @@
+-- Claves foráneas
+-- Se crean después de los índices de V2 para que reutilicen los índices
+-- compuestos que empiezan por su columna en lugar de crear uno propio
+-- (que en H2 compite con el compuesto y en MySQL duplica escrituras)
+
+alter table addresses add constraint fk_addresses_customer
+    foreign key (customer_id) references customers (id);
+
+alter table orders add constraint fk_orders_customer
+    foreign key (customer_id) references customers (id);
+
+alter table orders add constraint fk_orders_shipping_address
+    foreign key (shipping_address_id) references addresses (id);
+
+alter table orders_items add constraint fk_orders_items_order
+    foreign key (order_id) references orders (id);
+
+alter table orders_items add constraint fk_orders_items_product
+    foreign key (product_id) references products (id);
@@ -0,0 +1,21 @@
+-- Claves de idempotencia del alta de pedidos (OrderIdempotencyStore)
+-- La clave es única por cliente: la misma clave de dos clientes son dos altas
+-- distintas. request_hash es la huella SHA-256 (hexadecimal) de la entrada, para
+-- rechazar que una clave se reutilice con otra petición
+-- Sin clave foránea a orders: la respuesta guardada basta para contestar los
+-- reintentos y la fila caduca por su cuenta
+-- order_id y response van vacíos mientras la petición que reservó la clave
+-- sigue en curso; solo se confirman ya rellenos
+
+create table order_idempotency_keys (
+    customer_id bigint not null,
+    idempotency_key varchar(100) not null,
+    request_hash varchar(64) not null,
+    order_id bigint,
+    response ${long_text_type},
+    created_at datetime(6) not null,
+    primary key (customer_id, idempotency_key)
+);
+
+-- Purga de las claves caducadas
+create index ix_order_idempotency_keys_created on order_idempotency_keys (created_at);
@@ -0,0 +1,11 @@
+-- Secuencias nativas de H2 (tests); el incremento debe coincidir con el
+-- allocationSize de cada @SequenceGenerator
+-- El optimizador pooled toma el valor leído como el último id de su bloque:
+-- empezar en max(id) + allocationSize hace que el primer id asignado sea max(id) + 1
+create sequence customers_seq start with (select coalesce(max(id), 0) + 20 from customers) increment by 20;
+create sequence addresses_seq start with (select coalesce(max(id), 0) + 20 from addresses) increment by 20;
+create sequence products_seq start with (select coalesce(max(id), 0) + 20 from products) increment by 20;
+create sequence orders_seq start with (select coalesce(max(id), 0) + 50 from orders) increment by 50;
+create sequence orders_items_seq start with (select coalesce(max(id), 0) + 200 from orders_items) increment by 200;
+-- outbox_events se crea vacía en V1_2
+create sequence outbox_events_seq start with 1 increment by 50;
@@ -0,0 +1,2 @@
+-- El email normalizado se ha rellenado en V1_2; ya puede ser obligatorio
+alter table customers alter column email_normalized set not null;
@@ -0,0 +1,23 @@
+-- MySQL no tiene secuencias: Hibernate emula cada @SequenceGenerator con una
+-- tabla de una fila (el incremento lo aporta allocationSize en la entidad)
+-- El optimizador pooled toma el valor leído como el último id de su bloque:
+-- sembrar max(id) + allocationSize hace que el primer id asignado sea max(id) + 1,
+-- también en una BBDD existente registrada como V1
+create table customers_seq (next_val bigint);
+insert into customers_seq select coalesce(max(id), 0) + 20 from customers;
+
+create table addresses_seq (next_val bigint);
+insert into addresses_seq select coalesce(max(id), 0) + 20 from addresses;
+
+create table products_seq (next_val bigint);
+insert into products_seq select coalesce(max(id), 0) + 20 from products;
+
+create table orders_seq (next_val bigint);
+insert into orders_seq select coalesce(max(id), 0) + 50 from orders;
+
+create table orders_items_seq (next_val bigint);
+insert into orders_items_seq select coalesce(max(id), 0) + 200 from orders_items;
+
+-- outbox_events se crea vacía en V1_2
+create table outbox_events_seq (next_val bigint);
+insert into outbox_events_seq values (1);
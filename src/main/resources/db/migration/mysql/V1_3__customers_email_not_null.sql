@@ -0,0 +1,2 @@
+-- El email normalizado se ha rellenado en V1_2; ya puede ser obligatorio
+alter table customers modify email_normalized varchar(255) not null;
@@ -0,0 +1,161 @@
+package com.delogica.springboot.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.delogica.springboot.model.Product;
+import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.service.interfaces.StockService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private CacheInvalidationChannel channel;
+
+    @Autowired
+    private SecondLevelCacheInvalidator invalidator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product keyboard;
+    private Product mouse;
+
+    @BeforeEach
+    void setUp() {
+        keyboard = productRepository.save(product("L2-1", "Teclado"));
+        mouse = productRepository.save(product("L2-2", "Ratón"));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    private static Product product(String sku, String name) {
+        Product product = new Product();
+        product.setSku(sku);
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(10);
+        product.setActive(true);
+        return product;
+    }
+
+    private long statementsFor(Runnable action) {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        action.run();
+        return stats.getPrepareStatementCount();
+    }
+
+    @Test
+    void findByIdIsServedFromTheEntityRegion() {
+        assertThat(statementsFor(() -> productRepository.findById(keyboard.getId()))).isEqualTo(1);
+        assertThat(statementsFor(() -> productRepository.findById(keyboard.getId()))).isZero();
+    }
+
+    @Test
+    void activeProductsQueryIsCachedUntilProductsChange() {
+        assertThat(statementsFor(() -> productRepository.findByActiveTrue())).isEqualTo(1);
+        assertThat(statementsFor(() -> productRepository.findByActiveTrue())).isZero();
+
+        mouse.setActive(false);
+        productRepository.save(mouse);
+
+        assertThat(productRepository.findByActiveTrue()).extracting(Product::getSku).containsExactly("L2-1");
+    }
+
+    @Test
+    void stockReservationInvalidatesOnlyTheReservedProducts() {
+        productRepository.findById(keyboard.getId());
+        productRepository.findById(mouse.getId());
+
+        stockService.reserve(Map.of(keyboard.getId(), 3));
+
+        // El reservado queda bloqueado en la caché y se lee de la BBDD; el otro sigue en caché
+        assertThat(statementsFor(() -> assertThat(productRepository.findById(keyboard.getId()).orElseThrow()
+                .getStock()).isEqualTo(7))).isEqualTo(1);
+        assertThat(statementsFor(() -> productRepository.findById(mouse.getId()))).isZero();
+    }
+
+    @Test
+    void loadsThatStartedBeforeAStockChangeCannotCacheTheOldStock() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        outer.executeWithoutResult(status -> {
+            inner.executeWithoutResult(s -> stockService.reserve(Map.of(keyboard.getId(), 3)));
+            // Esta transacción empezó antes de liberarse el bloqueo: lee de la BBDD y no guarda en caché
+            assertThat(productRepository.findById(keyboard.getId()).orElseThrow().getStock()).isEqualTo(7);
+        });
+
+        assertThat(statementsFor(() -> assertThat(productRepository.findById(keyboard.getId()).orElseThrow()
+                .getStock()).isEqualTo(7))).isEqualTo(1);
+        assertThat(statementsFor(() -> productRepository.findById(keyboard.getId()))).isZero();
+    }
+
+    @Test
+    void invalidationFromAnotherNodeEvictsTheEntityAndCachedQueries() {
+        productRepository.findById(keyboard.getId());
+        productRepository.findByActiveTrue();
+        jdbcTemplate.update("update products set name = 'Teclado mecánico', active = false where id = ?",
+                keyboard.getId());
+        assertThat(productRepository.findById(keyboard.getId()).orElseThrow().getName()).isEqualTo("Teclado");
+
+        channel.publish(new CacheInvalidation("otro-nodo", Product.class.getName(), keyboard.getId(), true));
+
+        assertThat(productRepository.findById(keyboard.getId()).orElseThrow().getName())
+                .isEqualTo("Teclado mecánico");
+        assertThat(productRepository.findByActiveTrue()).extracting(Product::getSku).containsExactly("L2-2");
+    }
+
+    @Test
+    void committedWritesArePublishedToOtherNodes() {
+        List<CacheInvalidation> received = new CopyOnWriteArrayList<>();
+        channel.subscribe(received::add);
+
+        keyboard.setName("Teclado mecánico");
+        productRepository.save(keyboard);
+        stockService.reserve(Map.of(mouse.getId(), 1));
+
+        assertThat(received).containsExactly(
+                new CacheInvalidation(invalidator.nodeId(), Product.class.getName(), keyboard.getId(), true),
+                new CacheInvalidation(invalidator.nodeId(), Product.class.getName(), mouse.getId(), false));
+    }
+}
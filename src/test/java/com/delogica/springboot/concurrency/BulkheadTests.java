@@ -0,0 +1,63 @@
+package com.delogica.springboot.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.delogica.springboot.exceptions.ServiceUnavailableException;
+
+class BulkheadTests {
+
+	@Test
+	void nestedCallsReuseThePermitOfTheCallingThread() throws Throwable {
+		Bulkhead bulkhead = new Bulkhead(1, Duration.ofMillis(50));
+
+		String result = bulkhead.call(() -> bulkhead.call(() -> "anidada"));
+
+		assertThat(result).isEqualTo("anidada");
+		assertThat(bulkhead.availablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void serviceLimitLeavesTheReservedConnectionsFree() {
+		assertThat(new DatabaseBulkheadAspect(20, 5, Duration.ofSeconds(2)).availablePermits()).isEqualTo(15);
+		assertThatThrownBy(() -> new DatabaseBulkheadAspect(5, 5, Duration.ofSeconds(2)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsWhenNoPermitFreesUpInTime() throws Exception {
+		Bulkhead bulkhead = new Bulkhead(1, Duration.ofMillis(50));
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Future<Object> holder = pool.submit(() -> {
+			try {
+				return bulkhead.call(() -> {
+					holding.countDown();
+					release.await();
+					return null;
+				});
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		holding.await();
+
+		assertThatThrownBy(() -> bulkhead.call(() -> "rechazada"))
+				.isInstanceOf(ServiceUnavailableException.class);
+
+		release.countDown();
+		holder.get();
+		pool.shutdown();
+		assertThat(bulkhead.availablePermits()).isEqualTo(1);
+	}
+}
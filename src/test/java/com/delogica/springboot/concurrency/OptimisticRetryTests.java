@@ -0,0 +1,49 @@
+package com.delogica.springboot.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.delogica.springboot.exceptions.VersionConflictException;
+
+class OptimisticRetryTests {
+
+	@Test
+	void retriesConflictsUntilTheCallSucceeds() throws Throwable {
+		OptimisticRetry retry = new OptimisticRetry(3, 0);
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = retry.call(() -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new ObjectOptimisticLockingFailureException("Order", 1L);
+			}
+			return "ok";
+		});
+
+		assertThat(result).isEqualTo("ok");
+		assertThat(attempts).hasValue(3);
+	}
+
+	@Test
+	void givesUpAfterMaxAttemptsAndNeverRetriesOtherErrors() {
+		OptimisticRetry retry = new OptimisticRetry(2, 0);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> retry.call(() -> {
+			attempts.incrementAndGet();
+			throw new ObjectOptimisticLockingFailureException("Order", 1L);
+		})).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+		assertThat(attempts).hasValue(2);
+
+		attempts.set(0);
+		assertThatThrownBy(() -> retry.call(() -> {
+			attempts.incrementAndGet();
+			throw new VersionConflictException("versión esperada 1, actual 2");
+		})).isInstanceOf(VersionConflictException.class);
+		assertThat(attempts).hasValue(1);
+	}
+}
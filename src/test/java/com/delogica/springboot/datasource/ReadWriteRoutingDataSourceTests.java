@@ -0,0 +1,108 @@
+package com.delogica.springboot.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.delogica.springboot.dto.CustomerInputDTO;
+import com.delogica.springboot.dto.CustomerOutputDTO;
+import com.delogica.springboot.exceptions.NotFoundException;
+import com.delogica.springboot.repository.CustomerRepository;
+import com.delogica.springboot.service.interfaces.CustomerService;
+
+/**
+ * Enrutado con dos BBDD H2 en memoria: la principal (migrada por la
+ * aplicación) y una réplica con el mismo esquema que no recibe replicación,
+ * de modo que cada lectura muestra de qué BBDD viene
+ * Sin caché de segundo nivel, que serviría las lecturas sin ir a ninguna
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.datasource.routing.enabled=true",
+		"app.datasource.routing.replicas[0].url=" + ReadWriteRoutingDataSourceTests.REPLICA_URL,
+		"app.datasource.routing.replicas[0].username=sa",
+		"app.datasource.routing.check-interval=0s",
+		"app.datasource.routing.max-lag=5s",
+		"app.datasource.routing.lag-query=select seconds_behind_source from replica_status",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@ActiveProfiles("test")
+class ReadWriteRoutingDataSourceTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	private static final JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+	// La réplica necesita el esquema antes de que arranque el contexto (las cargas
+	// iniciales de los índices en memoria ya leen de ella)
+	static {
+		Flyway.configure()
+				.dataSource(REPLICA_URL, "sa", "")
+				.locations("classpath:db/migration/common", "classpath:db/migration/h2")
+				.placeholders(Map.of("long_text_type", "clob"))
+				.load()
+				.migrate();
+		REPLICA.execute("create table if not exists replica_status (seconds_behind_source bigint)");
+		REPLICA.execute("delete from replica_status");
+		REPLICA.execute("insert into replica_status values (0)");
+	}
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private ReplicaPool replicaPool;
+
+	@AfterEach
+	void tearDown() {
+		customerRepository.deleteAll();
+		REPLICA.update("delete from customers");
+		REPLICA.update("update replica_status set seconds_behind_source = 0");
+		replicaPool.refresh();
+	}
+
+	private static CustomerInputDTO input(String email) {
+		CustomerInputDTO dto = new CustomerInputDTO();
+		dto.setFullName("Cliente");
+		dto.setEmail(email);
+		dto.setPhone("123456");
+		return dto;
+	}
+
+	@Test
+	void writesGoToThePrimaryAndReadOnlyTransactionsToTheReplica() {
+		CustomerOutputDTO created = customerService.create(input("ana@test.com"));
+		assertThat(customerRepository.existsById(created.getId())).isFalse(); // readOnly: réplica
+
+		assertThatThrownBy(() -> customerService.findById(created.getId()))
+				.isInstanceOf(NotFoundException.class);
+
+		REPLICA.update("insert into customers (id, version, fullname, email, email_normalized, phone) "
+				+ "values (?, 0, 'Cliente', 'ana@test.com', 'ana@test.com', '123456')", created.getId());
+		assertThat(customerService.findById(created.getId()).getEmail()).isEqualTo("ana@test.com");
+	}
+
+	@Test
+	void laggingReplicasFallBackToThePrimary() {
+		CustomerOutputDTO created = customerService.create(input("eva@test.com"));
+
+		REPLICA.update("update replica_status set seconds_behind_source = 60");
+		replicaPool.refresh();
+
+		assertThat(replicaPool.availableCount()).isZero();
+		assertThat(customerService.findById(created.getId()).getEmail()).isEqualTo("eva@test.com");
+	}
+}
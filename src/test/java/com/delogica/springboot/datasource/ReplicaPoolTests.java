@@ -0,0 +1,43 @@
+package com.delogica.springboot.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class ReplicaPoolTests {
+
+	private static DataSource h2(String name) {
+		return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+	}
+
+	@Test
+	void alternatesBetweenAvailableReplicasAndSkipsUnreachableOnes() {
+		DataSource first = h2("pool_first");
+		DataSource second = h2("pool_second");
+		DataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/nope", "sa", "");
+
+		try (ReplicaPool pool = new ReplicaPool(List.of(first, second, unreachable), Duration.ofSeconds(5), null,
+				Duration.ZERO)) {
+			pool.refresh();
+			assertThat(pool.availableCount()).isEqualTo(2);
+			assertThat(List.of(pool.next(), pool.next(), pool.next(), pool.next()))
+					.containsExactly(first, second, first, second);
+		}
+	}
+
+	@Test
+	void returnsNoReplicaWhenAllAreTooFarBehind() {
+		DataSource replica = h2("pool_lagging");
+		try (ReplicaPool pool = new ReplicaPool(List.of(replica), Duration.ofSeconds(5),
+				"select 30 as seconds_behind_source", Duration.ZERO)) {
+			pool.refresh();
+			assertThat(pool.next()).isNull();
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.delogica.springboot.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.model.OrderIdempotencyKey;
+import com.delogica.springboot.repository.OrderIdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderIdempotencyStoreTests {
+
+	@Autowired
+	private OrderIdempotencyStore store;
+
+	@Autowired
+	private OrderIdempotencyKeyRepository repository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${app.orders.idempotency.ttl:24h}")
+	private Duration ttl;
+
+	@AfterEach
+	void tearDown() {
+		repository.deleteAll();
+		store.clearLocal();
+	}
+
+	@Test
+	void keysLoadedFromTheDatabaseKeepTheirRemainingLifetime() throws Exception {
+		OrderOutputDTO order = new OrderOutputDTO();
+		order.setOrderId(1L);
+		OrderIdempotencyKey.Key key = new OrderIdempotencyKey.Key(1L, "pedido-antiguo");
+		OrderIdempotencyKey stored = new OrderIdempotencyKey(key, "hash");
+		stored.setOrderId(1L);
+		stored.setResponse(objectMapper.writeValueAsString(order));
+		// Reservada hace casi todo su TTL (otro nodo): le queda un minuto
+		stored.setCreatedAt(LocalDateTime.now().minus(ttl).plusMinutes(1));
+		repository.save(stored);
+
+		assertThat(store.find(key, "hash")).contains(order);
+		assertThat(store.localExpiry(key)).hasValueSatisfying(
+				remaining -> assertThat(remaining).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(1)));
+	}
+}
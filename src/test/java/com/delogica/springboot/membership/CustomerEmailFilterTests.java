@@ -0,0 +1,30 @@
+package com.delogica.springboot.membership;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CustomerEmailFilterTests {
+
+	@Test
+	void answersMaybeUntilLoadedAndNeverMissesAnInsertedEmail() {
+		CustomerEmailFilter filter = new CustomerEmailFilter(10_000, 0.01);
+		assertThat(filter.mightContain("nuevo@test.com")).isTrue();
+
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("cliente" + i + "@test.com");
+		}
+		filter.markLoaded();
+
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filter.mightContain("cliente" + i + "@test.com")).isTrue();
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (filter.mightContain("otro" + i + "@test.com")) {
+				falsePositives++;
+			}
+		}
+		assertThat(falsePositives).isLessThan(300); // 1% esperado, con margen
+	}
+}
@@ -0,0 +1,48 @@
+package com.delogica.springboot.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.delogica.springboot.exceptions.NotFoundException;
+import com.delogica.springboot.service.interfaces.ProductService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ServiceMetricsAspectTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void timesServiceMethodsTaggedByOutcome() {
+		assertThatThrownBy(() -> productService.findById(999_999L)).isInstanceOf(NotFoundException.class);
+		productService.findByIsActiveTrue();
+
+		Timer failed = meterRegistry.find(ServiceMetricsAspect.METRIC_NAME)
+				.tags("service", "ProductServiceImpl", "method", "findById", "outcome", "NOT_FOUND")
+				.timer();
+		Timer succeeded = meterRegistry.find(ServiceMetricsAspect.METRIC_NAME)
+				.tags("method", "findByIsActiveTrue", "outcome", "SUCCESS", "status", "none")
+				.timer();
+
+		assertThat(failed).isNotNull();
+		assertThat(failed.count()).isEqualTo(1);
+		// Cada combinación de etiquetas se registra una vez y se reutiliza
+		assertThatThrownBy(() -> productService.findById(999_999L)).isInstanceOf(NotFoundException.class);
+		assertThat(failed.count()).isEqualTo(2);
+		assertThat(succeeded).isNotNull();
+		assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+		assertThat(meterRegistry.find("hibernate.statements").functionCounter()).isNotNull();
+	}
+}
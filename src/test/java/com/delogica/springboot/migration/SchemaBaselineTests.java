@@ -0,0 +1,52 @@
+package com.delogica.springboot.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Migra una BBDD creada antes de Flyway (el esquema de V1, con datos y sin
+ * historial) con la misma configuración de baseline que application.properties.
+ */
+class SchemaBaselineTests {
+
+	@Test
+	void existingSchemaIsBaselinedAndItsDataCompleted() {
+		DataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__create_schema.sql"))
+				.execute(dataSource);
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("insert into customers (id, fullname, email, phone) values "
+				+ "(3, 'Ana', 'Ana@Example.com', '111111'), "
+				+ "(5, 'Ana bis', ' ana@example.com', '222222'), "
+				+ "(9, 'Luis', 'luis@example.com', '333333')");
+		jdbc.update("insert into orders (id, customer_id, total) values (130, 3, 0)");
+
+		Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration/common", "classpath:db/migration/h2")
+				.placeholders(Map.of("long_text_type", "clob"))
+				.baselineOnMigrate(true)
+				.baselineVersion("1")
+				.load()
+				.migrate();
+
+		// El cliente más antiguo conserva la clave; el duplicado queda marcado
+		assertThat(jdbc.queryForList("select email_normalized from customers order by id", String.class))
+				.containsExactly("ana@example.com", "ana@example.com#5", "luis@example.com");
+		// El optimizador pooled asigna desde (valor leído - allocationSize + 1) = max(id) + 1
+		assertThat(jdbc.queryForObject("select next value for customers_seq", Long.class)).isEqualTo(9 + 20);
+		assertThat(jdbc.queryForObject("select next value for orders_seq", Long.class)).isEqualTo(130 + 50);
+		assertThat(jdbc.queryForObject("select next value for products_seq", Long.class)).isEqualTo(20);
+	}
+}
@@ -0,0 +1,26 @@
+package com.delogica.springboot.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink de pruebas que acumula los eventos en memoria; fuera de src/main para
+ * que ningún despliegue lo registre y pierda los eventos que marca como enviados
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> received = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        received.addAll(messages);
+    }
+
+    public synchronized List<OutboxMessage> received() {
+        return List.copyOf(received);
+    }
+
+    public synchronized void clear() {
+        received.clear();
+    }
+}
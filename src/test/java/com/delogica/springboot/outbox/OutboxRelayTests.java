@@ -0,0 +1,147 @@
+package com.delogica.springboot.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.delogica.springboot.dto.OrderInputDTO;
+import com.delogica.springboot.dto.OrderItemInputDTO;
+import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.model.Address;
+import com.delogica.springboot.model.Customer;
+import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.model.Product;
+import com.delogica.springboot.repository.AddressRepository;
+import com.delogica.springboot.repository.CustomerRepository;
+import com.delogica.springboot.repository.OrderRepository;
+import com.delogica.springboot.repository.OutboxEventRepository;
+import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.service.interfaces.OrderService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxRelayTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private AddressRepository addressRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Customer customer;
+	private Address address;
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		outboxEventRepository.deleteAll();
+
+		customer = new Customer();
+		customer.setFullName("Cliente Test");
+		customer.setEmail("outbox@test.com");
+		customer.setPhone("123456");
+		customer = customerRepository.save(customer);
+
+		address = new Address();
+		address.setCustomer(customer);
+		address.setLine1("Calle Mayor 1");
+		address.setCity("Madrid");
+		address.setPostalCode("28001");
+		address.setCountry("ES");
+		address.setIsDefault(true);
+		address = addressRepository.save(address);
+
+		product = new Product();
+		product.setSku("SKU-O");
+		product.setName("Producto");
+		product.setPrice(new BigDecimal("10.00"));
+		product.setStock(1000);
+		product.setActive(true);
+		product = productRepository.save(product);
+	}
+
+	@AfterEach
+	void tearDown() {
+		outboxEventRepository.deleteAll();
+		orderRepository.deleteAll();
+		addressRepository.deleteAll();
+		customerRepository.deleteAll();
+		productRepository.deleteAll();
+	}
+
+	private OrderInputDTO orderInput(int quantity) {
+		OrderItemInputDTO item = new OrderItemInputDTO();
+		item.setProductId(product.getId());
+		item.setQuantity(quantity);
+		OrderInputDTO input = new OrderInputDTO();
+		input.setCustomerId(customer.getId());
+		input.setAddressId(address.getId());
+		input.setItems(List.of(item));
+		return input;
+	}
+
+	private OutboxRelay relay(OutboxSink sink, int batchSize) {
+		return new OutboxRelay(outboxEventRepository, List.of(sink), transactionManager, batchSize, true);
+	}
+
+	@Test
+	void lifecycleEventsAreRelayedInOrderAndDrained() {
+		OrderOutputDTO shipped = orderService.create(orderInput(1));
+		OrderOutputDTO cancelled = orderService.create(orderInput(2));
+		orderService.update(customer.getId(), cancelled.getOrderId(), orderInput(3));
+		orderService.updateStatus(customer.getId(), shipped.getOrderId(), OrderStatus.PAID);
+		orderService.updateStatus(customer.getId(), shipped.getOrderId(), OrderStatus.SHIPPED);
+		orderService.updateStatus(customer.getId(), cancelled.getOrderId(), OrderStatus.CANCELLED);
+
+		InMemoryOutboxSink sink = new InMemoryOutboxSink();
+		assertThat(relay(sink, 2).drain()).isEqualTo(6);
+
+		List<OutboxMessage> received = sink.received();
+		assertThat(received).extracting(OutboxMessage::eventType).containsExactly(
+				"ORDER_CREATED", "ORDER_CREATED", "ORDER_UPDATED", "ORDER_PAID", "ORDER_SHIPPED", "ORDER_CANCELLED");
+		assertThat(received).extracting(OutboxMessage::id).isSorted();
+		assertThat(received.get(2).aggregateId()).isEqualTo(cancelled.getOrderId());
+		assertThat(received.get(2).payload()).contains("\"total\":30.00");
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+
+	@Test
+	void failedPublicationKeepsTheBatchForTheNextRun() {
+		orderService.create(orderInput(1));
+
+		OutboxSink failing = messages -> {
+			throw new IllegalStateException("broker caído");
+		};
+		assertThatThrownBy(() -> relay(failing, 10).drain()).isInstanceOf(IllegalStateException.class);
+		assertThat(outboxEventRepository.count()).isEqualTo(1);
+
+		InMemoryOutboxSink sink = new InMemoryOutboxSink();
+		assertThat(relay(sink, 10).drain()).isEqualTo(1);
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+}
@@ -0,0 +1,140 @@
+package com.delogica.springboot.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.delogica.springboot.model.OrderStatus;
+
+/**
+ * Comprueba con EXPLAIN que las consultas que genera Hibernate para los
+ * métodos de los repositorios usan los índices creados por las migraciones
+ * Se ejecuta sobre H2; el plan de MySQL puede variar con el volumen de datos,
+ * pero ambos necesitan el mismo índice para evitar el recorrido completo
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.delogica.springboot.repository.RepositoryIndexUsageTests$CapturingInspector")
+@ActiveProfiles("test")
+class RepositoryIndexUsageTests {
+
+	// Sentencias SQL preparadas por Hibernate, en orden
+	private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+
+	public static class CapturingInspector implements StatementInspector {
+		@Override
+		public String inspect(String sql) {
+			CAPTURED.add(sql);
+			return sql;
+		}
+	}
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private AddressRepository addressRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private SalesDailyStatusRepository salesDailyStatusRepository;
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+	private static final LocalDateTime END = START.plusMonths(1);
+
+	/**
+	 * Ejecuta la llamada y devuelve el plan de la primera sentencia que genera
+	 */
+	private String planOf(Runnable call) {
+		CAPTURED.clear();
+		call.run();
+		assertThat(CAPTURED).isNotEmpty();
+		String sql = CAPTURED.get(0);
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+			int parameters = explain.getParameterMetaData().getParameterCount();
+			for (int i = 1; i <= parameters; i++) {
+				explain.setObject(i, null);
+			}
+			try (ResultSet plan = explain.executeQuery()) {
+				plan.next();
+				return plan.getString(1).toLowerCase(Locale.ROOT);
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * La consulta accede por un índice cuya primera condición es la indicada,
+	 * sin recorrer la tabla completa
+	 * H2 crea además su propio índice para cada clave foránea y, cuando hay que
+	 * leer la fila de todos modos, puede elegir ese en lugar del compuesto
+	 */
+	private static void assertSeeksOn(String plan, String condition) {
+		assertThat(plan).doesNotContain("tablescan").containsPattern("/\\* public\\.\\w+: " + condition);
+	}
+
+	@Test
+	void orderQueriesUseTheCustomerAndDateIndexes() {
+		PageRequest page = PageRequest.of(0, 20, Sort.by("orderDate", "id"));
+
+		assertSeeksOn(planOf(() -> orderRepository.findByCustomerId(1L, page)), "customer_id = \\?1");
+		assertSeeksOn(planOf(() -> orderRepository.findByCustomerIdAndOrderDateBetween(1L, START, END, page)),
+				"customer_id = \\?1");
+		assertSeeksOn(planOf(() -> orderRepository.findByOrderDateBetween(START, END, page)), "order_date >= \\?1");
+
+		// Las consultas de ids se resuelven solo con el índice compuesto
+		assertThat(planOf(() -> orderRepository.findIdsByCustomerId(1L, page)))
+				.contains("ix_orders_customer_date");
+		assertThat(planOf(() -> orderRepository.findPositionsByCustomerIdAfter(1L, END, 10L, Limit.of(20))))
+				.contains("ix_orders_customer_date");
+		assertThat(planOf(() -> orderRepository.findFirstPositionsByCustomerIdAndOrderDateBetween(1L, START, END,
+				Limit.of(20)))).contains("ix_orders_customer_date");
+		assertThat(planOf(() -> orderRepository.findFirstPositionsByOrderDateBetween(START, END, Limit.of(20))))
+				.contains("ix_orders_date");
+	}
+
+	@Test
+	void lookupQueriesUseTheirIndexes() {
+		assertSeeksOn(planOf(() -> orderItemRepository.findByOrderId(1L)), "order_id = \\?1");
+		assertThat(planOf(() -> orderItemRepository.sumQuantitiesByProduct(List.of(1L, 2L))))
+				.contains("ix_orders_items_order");
+		assertThat(planOf(() -> addressRepository.findByCustomerIdAndIsDefaultTrue(1L)))
+				.contains("ix_addresses_customer_default");
+		assertThat(planOf(() -> productRepository.findByActiveTrue())).contains("ix_products_active");
+		assertThat(planOf(() -> customerRepository.findByEmailNormalized("ana@test.com")))
+				.contains("uk_customers_email");
+		assertThat(planOf(() -> salesDailyStatusRepository.sumByDay(LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 1, 31), List.of(OrderStatus.PAID)))).contains("primary_key");
+	}
+}
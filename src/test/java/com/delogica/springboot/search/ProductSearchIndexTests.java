@@ -0,0 +1,71 @@
+package com.delogica.springboot.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchIndexTests {
+
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductSearchIndex();
+		index.index(1L, "Teclado mecánico", "KB-001");
+		index.index(2L, "Ratón inalámbrico", "MS-002");
+		index.index(3L, "Alfombrilla para ratón", "MP-003");
+		index.index(4L, "Teclas de repuesto", "KB-004");
+	}
+
+	private List<Long> ids(String query) {
+		return index.search(query).stream().map(ProductSearchIndex.Hit::productId).toList();
+	}
+
+	@Test
+	void matchesIgnoringCaseAndAccents() {
+		assertThat(ids("RATON")).containsExactlyInAnyOrder(2L, 3L);
+		assertThat(ids("mecanico")).containsExactly(1L);
+	}
+
+	@Test
+	void matchesPrefixesAndInnerFragments() {
+		assertThat(ids("tec")).containsExactlyInAnyOrder(1L, 4L);
+		assertThat(ids("lambr")).containsExactly(2L);
+		assertThat(ids("kb")).containsExactlyInAnyOrder(1L, 4L);
+		// Tres caracteres bastan para un fragmento interior
+		assertThat(ids("ico")).containsExactlyInAnyOrder(1L, 2L);
+	}
+
+	@Test
+	void threeCharacterTermsRankPrefixesAboveInnerFragments() {
+		index.index(5L, "Soporte", "XTAPX-005");
+		index.index(6L, "Tapón", "TP-006");
+		// "tap" es prefijo de "tapon" e interior del SKU "xtapx"
+		assertThat(ids("tap")).containsExactly(6L, 5L);
+		assertThat(index.search("tap").get(0).score()).isGreaterThan(index.search("tap").get(1).score());
+		assertThat(ids("apx")).containsExactly(5L);
+	}
+
+	@Test
+	void requiresAllTermsAndRanksExactMatchesFirst() {
+		assertThat(ids("raton inalam")).containsExactly(2L);
+		assertThat(ids("teclas")).containsExactly(4L);
+		assertThat(ids("teclado")).containsExactly(1L);
+		assertThat(ids("ratón")).first().isIn(2L, 3L);
+		assertThat(index.search("raton").get(0).score()).isEqualTo(index.search("raton").get(1).score());
+	}
+
+	@Test
+	void reindexingAndRemovalUpdateThePostings() {
+		index.index(1L, "Monitor", "MN-001");
+		assertThat(ids("teclado")).isEmpty();
+		assertThat(ids("monitor")).containsExactly(1L);
+
+		index.remove(2L);
+		assertThat(ids("raton")).containsExactly(3L);
+		assertThat(index.size()).isEqualTo(3);
+	}
+}
@@ -0,0 +1,111 @@
+package com.delogica.springboot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.delogica.springboot.dto.AddressOutputDTO;
+import com.delogica.springboot.exceptions.NotFoundException;
+import com.delogica.springboot.model.Address;
+import com.delogica.springboot.model.Customer;
+import com.delogica.springboot.repository.AddressRepository;
+import com.delogica.springboot.repository.CustomerRepository;
+import com.delogica.springboot.service.interfaces.AddressService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AddressServiceImplTests {
+
+	@Autowired
+	private AddressService addressService;
+
+	@Autowired
+	private AddressRepository addressRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Customer customer;
+	private Address home;
+	private Address office;
+
+	@BeforeEach
+	void setUp() {
+		customer = new Customer();
+		customer.setFullName("Cliente");
+		customer.setEmail("direcciones@test.com");
+		customer.setPhone("123456");
+		customer = customerRepository.save(customer);
+		home = addressRepository.save(address("Calle Mayor 1", true));
+		office = addressRepository.save(address("Calle Alcalá 2", false));
+	}
+
+	@AfterEach
+	void tearDown() {
+		addressRepository.deleteAll();
+		customerRepository.deleteAll();
+	}
+
+	private Address address(String line1, boolean isDefault) {
+		Address address = new Address();
+		address.setCustomer(customer);
+		address.setLine1(line1);
+		address.setCity("Madrid");
+		address.setPostalCode("28001");
+		address.setCountry("ES");
+		address.setIsDefault(isDefault);
+		return address;
+	}
+
+	private long statementsFor(Runnable action) {
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		action.run();
+		return stats.getPrepareStatementCount();
+	}
+
+	@Test
+	void deleteIsASingleStatementAndExplainsRejections() {
+		addressRepository.findById(office.getId()); // queda en la caché de segundo nivel
+
+		assertThat(statementsFor(() -> addressService.delete(customer.getId(), office.getId()))).isEqualTo(1);
+		assertThat(entityManagerFactory.getCache().contains(Address.class, office.getId())).isFalse();
+		assertThat(addressRepository.findById(office.getId())).isEmpty();
+
+		assertThatThrownBy(() -> addressService.delete(customer.getId(), home.getId()))
+				.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> addressService.delete(customer.getId() + 1000, home.getId()))
+				.isInstanceOf(NotFoundException.class);
+		assertThat(addressRepository.existsById(home.getId())).isTrue();
+	}
+
+	@Test
+	void listingProjectsWithoutLoadingEntities() {
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		Page<AddressOutputDTO> page = addressService.findAllByCustomerId(customer.getId(), PageRequest.of(0, 10));
+
+		assertThat(stats.getEntityLoadCount()).isZero();
+		assertThat(page.getContent()).extracting(AddressOutputDTO::getLine1, AddressOutputDTO::getIsDefault,
+				AddressOutputDTO::getCustomerId).containsExactlyInAnyOrder(
+						tuple("Calle Mayor 1", true, customer.getId()),
+						tuple("Calle Alcalá 2", false, customer.getId()));
+	}
+}
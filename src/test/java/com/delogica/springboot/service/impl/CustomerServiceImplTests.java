@@ -0,0 +1,86 @@
+package com.delogica.springboot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.delogica.springboot.dto.CustomerInputDTO;
+import com.delogica.springboot.dto.CustomerOutputDTO;
+import com.delogica.springboot.exceptions.ResourceAlreadyExistsException;
+import com.delogica.springboot.membership.CustomerEmailFilter;
+import com.delogica.springboot.model.Customer;
+import com.delogica.springboot.repository.CustomerRepository;
+import com.delogica.springboot.service.interfaces.CustomerService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerServiceImplTests {
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private CustomerEmailFilter customerEmailFilter;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@AfterEach
+	void tearDown() {
+		customerRepository.deleteAll();
+	}
+
+	private static CustomerInputDTO input(String email, String phone) {
+		CustomerInputDTO dto = new CustomerInputDTO();
+		dto.setFullName("Cliente");
+		dto.setEmail(email);
+		dto.setPhone(phone);
+		return dto;
+	}
+
+	@Test
+	void newEmailsSkipTheLookupAndDuplicatesAreRejectedIgnoringCase() {
+		assertThat(customerEmailFilter.isLoaded()).isTrue();
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		CustomerOutputDTO created = customerService.create(input("Ana@Test.com", "111111"));
+		assertThat(stats.getQueryExecutionCount()).isZero();
+		assertThat(stats.getEntityInsertCount()).isEqualTo(1);
+
+		assertThatThrownBy(() -> customerService.create(input(" ana@test.COM ", "222222")))
+				.isInstanceOf(ResourceAlreadyExistsException.class);
+		assertThat(customerService.findByEmail("ANA@test.com").getId()).isEqualTo(created.getId());
+	}
+
+	@Test
+	void duplicatesUnknownToTheFilterAreRejectedByTheConstraint() {
+		// Alta por otra vía (otra instancia, carga masiva...): el filtro no la conoce
+		Customer other = new Customer();
+		other.setFullName("Otro");
+		other.setEmail("luis@test.com");
+		other.setPhone("333333");
+		customerRepository.save(other);
+		assertThat(customerEmailFilter.mightContain("eva@test.com")).isFalse();
+
+		assertThatThrownBy(() -> customerService.create(input("LUIS@test.com", "444444")))
+				.isInstanceOf(ResourceAlreadyExistsException.class);
+
+		CustomerOutputDTO eva = customerService.create(input("eva@test.com", "555555"));
+		assertThatThrownBy(() -> customerService.updateById(input("Luis@Test.com", "555555"), eva.getId()))
+				.isInstanceOf(ResourceAlreadyExistsException.class);
+		assertThat(customerRepository.count()).isEqualTo(2);
+	}
+}
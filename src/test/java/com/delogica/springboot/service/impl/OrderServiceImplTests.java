@@ -0,0 +1,707 @@
+package com.delogica.springboot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.delogica.springboot.dto.ExportFormat;
+import com.delogica.springboot.dto.OrderBulkReportDTO;
+import com.delogica.springboot.dto.OrderCursorPageDTO;
+import com.delogica.springboot.dto.OrderInputDTO;
+import com.delogica.springboot.dto.OrderItemInputDTO;
+import com.delogica.springboot.dto.OrderItemOutputDTO;
+import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.dto.OrderStatusBulkResultDTO;
+import com.delogica.springboot.exceptions.NotFoundException;
+import com.delogica.springboot.exceptions.ResourceAlreadyExistsException;
+import com.delogica.springboot.exceptions.VersionConflictException;
+import com.delogica.springboot.idempotency.OrderIdempotencyStore;
+import com.delogica.springboot.model.Address;
+import com.delogica.springboot.model.Customer;
+import com.delogica.springboot.model.Order;
+import com.delogica.springboot.model.OrderIdempotencyKey;
+import com.delogica.springboot.model.OrderItem;
+import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.model.Product;
+import com.delogica.springboot.repository.AddressRepository;
+import com.delogica.springboot.repository.CustomerRepository;
+import com.delogica.springboot.repository.OrderIdempotencyKeyRepository;
+import com.delogica.springboot.repository.OrderRepository;
+import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.service.interfaces.OrderService;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.delogica.springboot.service.impl.OrderServiceImplTests$SequenceCountingInspector")
+@ActiveProfiles("test")
+class OrderServiceImplTests {
+
+	// Peticiones de bloques de ids a las secuencias, que dependen de los ids ya
+	// consumidos por otros tests
+	private static final AtomicLong SEQUENCE_CALLS = new AtomicLong();
+
+	// Acción que se ejecuta una vez justo antes de la siguiente carga de pedidos con
+	// sus ítems, para reproducir cambios entre las dos fases de una lectura
+	private static final AtomicReference<Runnable> BEFORE_ITEMS_LOAD = new AtomicReference<>();
+
+	public static class SequenceCountingInspector implements StatementInspector {
+		@Override
+		public String inspect(String sql) {
+			if (sql.contains("next value for")) {
+				SEQUENCE_CALLS.incrementAndGet();
+			}
+			if (sql.contains("join orders_items")) {
+				Runnable action = BEFORE_ITEMS_LOAD.getAndSet(null);
+				if (action != null) {
+					action.run();
+				}
+			}
+			return sql;
+		}
+	}
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private AddressRepository addressRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+
+	@Autowired
+	private OrderIdempotencyStore orderIdempotencyStore;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Customer customer;
+	private Address address;
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		customer = new Customer();
+		customer.setFullName("Cliente Test");
+		customer.setEmail("cliente@test.com");
+		customer.setPhone("123456");
+		customer = customerRepository.save(customer);
+
+		address = new Address();
+		address.setCustomer(customer);
+		address.setLine1("Calle Mayor 1");
+		address.setCity("Madrid");
+		address.setPostalCode("28001");
+		address.setCountry("ES");
+		address.setIsDefault(true);
+		address = addressRepository.save(address);
+
+		product = new Product();
+		product.setSku("SKU-1");
+		product.setName("Producto");
+		product.setPrice(new BigDecimal("10.00"));
+		product.setStock(100_000);
+		product.setActive(true);
+		product = productRepository.save(product);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orderIdempotencyKeyRepository.deleteAll();
+		orderIdempotencyStore.clearLocal();
+		orderRepository.deleteAll();
+		addressRepository.deleteAll();
+		customerRepository.deleteAll();
+		productRepository.deleteAll();
+	}
+
+	private Statistics statistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	private void createOrders(int count, int itemsPerOrder) {
+		LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+		for (int i = 0; i < count; i++) {
+			Order order = new Order();
+			order.setCustomer(customer);
+			order.setShippingAddress(address);
+			order.setStatus(OrderStatus.CREATED);
+			order.setOrderDate(base.plusHours(i));
+			for (int j = 0; j < itemsPerOrder; j++) {
+				OrderItem item = new OrderItem();
+				item.setProduct(product);
+				item.setQuantity(j + 1);
+				item.setUnitPrice(product.getPrice());
+				order.addItem(item);
+			}
+			orderRepository.save(order);
+		}
+	}
+
+	private OrderInputDTO orderInput(int lines) {
+		List<OrderItemInputDTO> items = new ArrayList<>();
+		for (int i = 0; i < lines; i++) {
+			OrderItemInputDTO item = new OrderItemInputDTO();
+			item.setProductId(product.getId());
+			item.setQuantity(i + 1);
+			items.add(item);
+		}
+		OrderInputDTO input = new OrderInputDTO();
+		input.setCustomerId(customer.getId());
+		input.setAddressId(address.getId());
+		input.setItems(items);
+		return input;
+	}
+
+	private long statementsFor(Runnable action) {
+		Statistics stats = statistics();
+		stats.clear();
+		action.run();
+		return stats.getPrepareStatementCount();
+	}
+
+	// Como statementsFor, sin contar las llamadas a las secuencias
+	private long statementsWithoutSequencesFor(Runnable action) {
+		long before = SEQUENCE_CALLS.get();
+		long statements = statementsFor(action);
+		return statements - (SEQUENCE_CALLS.get() - before);
+	}
+
+	@Test
+	void pagedListingsUseConstantNumberOfStatements() {
+		createOrders(5, 3);
+		long fivePerPage = statementsFor(() -> orderService.findByCustomerId(customer.getId(), PageRequest.of(0, 5)));
+
+		createOrders(15, 3);
+		Page<OrderOutputDTO> page = orderService.findByCustomerId(customer.getId(), PageRequest.of(0, 20));
+		long twentyPerPage = statementsFor(() -> orderService.findByCustomerId(customer.getId(), PageRequest.of(0, 20)));
+
+		assertThat(page.getContent()).hasSize(20);
+		assertThat(page.getContent()).allSatisfy(o -> assertThat(o.getItems()).hasSize(3));
+		assertThat(page.getContent().get(0).getOrderDate()).isAfter(page.getContent().get(19).getOrderDate());
+		// página de ids + count + pedidos con sus ítems, sin depender del tamaño de página
+		assertThat(twentyPerPage).isEqualTo(fivePerPage).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void dateRangeListingsUseConstantNumberOfStatements() {
+		createOrders(20, 2);
+		LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+		LocalDateTime end = LocalDateTime.of(2024, 1, 2, 0, 0);
+
+		long byDate = statementsFor(() -> orderService.findByOrderDateBetween(end, start, PageRequest.of(0, 10)));
+		long byCustomerAndDate = statementsFor(() -> orderService
+				.findByCustomerIdAndOrderDateBetween(customer.getId(), start, end, PageRequest.of(1, 10)));
+
+		assertThat(byDate).isLessThanOrEqualTo(3);
+		assertThat(byCustomerAndDate).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void createBatchesItemInserts() {
+		orderService.create(orderInput(1)); // calienta las secuencias
+
+		long fiveLines = statementsFor(() -> orderService.create(orderInput(5)));
+		long fiftyLines = statementsFor(() -> orderService.create(orderInput(50)));
+
+		assertThat(orderRepository.count()).isEqualTo(3);
+		// INSERT del pedido + un lote de ítems + upserts de agregados de ventas por estado y producto
+		// + evento de outbox (+ reserva puntual de bloque de ids)
+		assertThat(fiftyLines).isLessThanOrEqualTo(fiveLines + 2).isLessThanOrEqualTo(8);
+		assertThat(statistics().getEntityInsertCount()).isEqualTo(52); // pedido + 50 ítems + evento de outbox
+	}
+
+	@Test
+	void createBulkReportsFailuresWithoutAbortingTheBatch() {
+		List<OrderInputDTO> inputs = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			inputs.add(orderInput(2));
+		}
+		OrderInputDTO withoutItems = orderInput(0);
+		inputs.add(2, withoutItems);
+		OrderInputDTO unknownCustomer = orderInput(1);
+		unknownCustomer.setCustomerId(999_999L);
+		inputs.add(5, unknownCustomer);
+
+		OrderBulkReportDTO report = orderService.createBulk(inputs, 3);
+
+		assertThat(report.getCreated()).isEqualTo(7);
+		assertThat(report.getFailed()).isEqualTo(2);
+		assertThat(report.getResults()).hasSize(9);
+		assertThat(report.getResults().get(2).getError()).contains("items");
+		assertThat(report.getResults().get(5).getError()).isNotNull();
+		assertThat(report.getResults().get(5).getOrderId()).isNull();
+		assertThat(report.getResults().get(8).getOrderId()).isNotNull();
+		assertThat(orderRepository.count()).isEqualTo(7);
+	}
+
+	@Test
+	void concurrentCheckoutsNeverOversellAHotProduct() throws Exception {
+		product.setStock(100);
+		product = productRepository.save(product);
+
+		OrderInputDTO input = orderInput(1);
+		input.getItems().get(0).setQuantity(5);
+
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		List<Callable<Boolean>> checkouts = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			checkouts.add(() -> {
+				try {
+					orderService.create(input);
+					return true;
+				} catch (IllegalStateException e) {
+					return false;
+				}
+			});
+		}
+		int succeeded = 0;
+		for (Future<Boolean> result : pool.invokeAll(checkouts)) {
+			if (result.get()) {
+				succeeded++;
+			}
+		}
+		pool.shutdown();
+
+		assertThat(succeeded).isEqualTo(20);
+		assertThat(orderRepository.count()).isEqualTo(20);
+		// Se lee a través de la caché de segundo nivel: ninguna lectura concurrente
+		// puede haber dejado en ella el stock anterior a una reserva
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isZero();
+	}
+
+	@Test
+	void orderWritesKeepUnrelatedEntriesInTheSecondLevelCache() {
+		Product other = new Product();
+		other.setSku("SKU-2");
+		other.setName("Otro producto");
+		other.setPrice(new BigDecimal("5.00"));
+		other.setStock(10);
+		other.setActive(true);
+		Long otherId = productRepository.save(other).getId();
+		productRepository.findById(otherId);
+		customerRepository.findById(customer.getId());
+		productRepository.findByActiveTrue();
+
+		// Los upserts de los agregados de ventas declaran su propio espacio de consulta
+		OrderOutputDTO created = orderService.create(orderInput(2));
+		orderService.updateStatus(customer.getId(), created.getOrderId(), OrderStatus.PAID);
+
+		assertThat(statementsFor(() -> productRepository.findById(otherId))).isZero();
+		assertThat(statementsFor(() -> customerRepository.findById(customer.getId()))).isZero();
+		assertThat(statementsFor(() -> productRepository.findByActiveTrue())).isZero();
+	}
+
+	@Test
+	void cancellingAnOrderReleasesItsStock() {
+		product.setStock(10);
+		product = productRepository.save(product);
+
+		OrderOutputDTO created = orderService.create(orderInput(3)); // 1 + 2 + 3 unidades
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(4);
+
+		orderService.updateStatus(customer.getId(), created.getOrderId(), OrderStatus.CANCELLED);
+
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(10);
+		assertThatThrownBy(() -> orderService.create(orderInput(5))) // 15 unidades
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(10);
+	}
+
+	@Test
+	void scrollWalksAllOrdersWithoutCountQueries() {
+		createOrders(25, 1);
+		List<Long> expected = orderService.findByCustomerId(customer.getId(), PageRequest.of(0, 25))
+				.map(OrderOutputDTO::getOrderId).getContent();
+
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			String current = cursor;
+			OrderCursorPageDTO[] page = new OrderCursorPageDTO[1];
+			long statements = statementsFor(() -> page[0] = orderService.scrollByCustomerId(customer.getId(), current, 10));
+			// ids de la página + pedidos con sus ítems, sin count
+			assertThat(statements).isEqualTo(2);
+			page[0].getContent().forEach(o -> seen.add(o.getOrderId()));
+			cursor = page[0].getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(seen).containsExactlyElementsOf(expected);
+		assertThatThrownBy(() -> orderService.scrollByCustomerId(customer.getId(), "no-es-un-cursor", 10))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void scrollAdvancesPastAPageWhoseOrdersWereAllDeleted() {
+		createOrders(15, 1);
+		List<Long> expected = orderService.findByCustomerId(customer.getId(), PageRequest.of(0, 15))
+				.map(OrderOutputDTO::getOrderId).getContent();
+		OrderCursorPageDTO first = orderService.scrollByCustomerId(customer.getId(), null, 5);
+
+		// Otra transacción borra los pedidos de la segunda página entre la lectura
+		// de sus claves y la carga de los pedidos
+		String deleted = expected.subList(5, 10).stream().map(String::valueOf).collect(Collectors.joining(","));
+		BEFORE_ITEMS_LOAD.set(() -> {
+			jdbcTemplate.update("delete from orders_items where order_id in (" + deleted + ")");
+			jdbcTemplate.update("delete from orders where id in (" + deleted + ")");
+		});
+		OrderCursorPageDTO emptied = orderService.scrollByCustomerId(customer.getId(), first.getNextCursor(), 5);
+		assertThat(emptied.getContent()).isEmpty();
+		assertThat(emptied.isHasNext()).isTrue();
+		assertThat(emptied.getNextCursor()).isNotNull().isNotEqualTo(first.getNextCursor());
+
+		OrderCursorPageDTO last = orderService.scrollByCustomerId(customer.getId(), emptied.getNextCursor(), 5);
+		assertThat(last.getContent()).extracting(OrderOutputDTO::getOrderId)
+				.containsExactlyElementsOf(expected.subList(10, 15));
+		assertThat(last.isHasNext()).isFalse();
+	}
+
+	@Test
+	void createSnapshotsProductPricesWithOneLookup() {
+		orderService.create(orderInput(1)); // calienta las secuencias
+
+		OrderOutputDTO[] created = new OrderOutputDTO[1];
+		statementsFor(() -> created[0] = orderService.create(orderInput(3))); // 1 + 2 + 3 unidades
+
+		assertThat(created[0].getItems()).allSatisfy(i -> assertThat(i.getUnitPrice()).isEqualByComparingTo("10.00"));
+		assertThat(created[0].getTotal()).isEqualByComparingTo("60.00");
+		assertThat(statistics().getEntityLoadCount()).isEqualTo(1);
+		assertThatThrownBy(() -> {
+			OrderInputDTO unknownProduct = orderInput(1);
+			unknownProduct.getItems().get(0).setProductId(999_999L);
+			orderService.create(unknownProduct);
+		}).isInstanceOf(NotFoundException.class);
+	}
+
+	@Test
+	void exportStreamsTheDateRangeInOrder() throws Exception {
+		createOrders(30, 2);
+		LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+		LocalDateTime end = LocalDateTime.of(2024, 1, 1, 23, 59);
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		long exported = orderService.exportByOrderDateBetween(end, start, ExportFormat.CSV, csv);
+
+		String[] rows = csv.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(exported).isEqualTo(14); // de 10:00 a 23:00
+		assertThat(rows).hasSize(15);
+		assertThat(rows[0]).startsWith("orderId,");
+		assertThat(rows[1]).contains("2024-01-01T10:00").endsWith(product.getId() + ":1:10.00;" + product.getId() + ":2:10.00");
+
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		orderService.exportByOrderDateBetween(start, end, ExportFormat.NDJSON, ndjson);
+
+		String[] lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(14);
+		JsonNode last = new ObjectMapper().readTree(lines[13]);
+		assertThat(last.get("items")).hasSize(2);
+		assertThat(last.get("total").decimalValue()).isEqualByComparingTo("30.00");
+	}
+
+	@Test
+	void bulkStatusChangeOnlyMovesOrdersInAllowedSourceStates() {
+		createOrders(20, 2); // 1 + 2 unidades cada uno
+		List<Long> ids = orderRepository.findAll().stream().map(Order::getId).sorted().toList();
+		List<Long> firstFive = ids.subList(0, 5);
+
+		long fivePaid = statementsFor(() -> orderService.updateStatusBulk(firstFive, OrderStatus.PAID));
+		OrderStatusBulkResultDTO[] paid = new OrderStatusBulkResultDTO[1];
+		long fifteenPaid = statementsFor(() -> paid[0] = orderService.updateStatusBulk(ids, OrderStatus.PAID));
+
+		assertThat(paid[0].getUpdated()).containsExactlyElementsOf(ids.subList(5, 20));
+		assertThat(paid[0].getRejected()).containsExactlyElementsOf(firstFive);
+		// sentencias por bloque, no por pedido: solo crecen los upserts de agregados por día
+		assertThat(fifteenPaid).isLessThanOrEqualTo(fivePaid + 4);
+
+		int stockBefore = productRepository.findById(product.getId()).orElseThrow().getStock();
+		OrderStatusBulkResultDTO cancelled = orderService
+				.updateStatusBulk(List.of(ids.get(1), ids.get(0), ids.get(0), 999_999L), OrderStatus.CANCELLED);
+		assertThat(cancelled.getUpdated()).containsExactly(ids.get(0), ids.get(1));
+		assertThat(cancelled.getRejected()).containsExactly(999_999L);
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(stockBefore + 6);
+
+		assertThat(orderService.updateStatusBulk(ids, OrderStatus.CREATED).getRejected()).hasSize(20);
+		assertThat(orderService.updateStatusBulk(ids, OrderStatus.SHIPPED).getUpdated()).hasSize(18);
+		assertThat(orderRepository.findById(ids.get(0)).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+		assertThatThrownBy(() -> orderService.updateStatus(customer.getId(), ids.get(2), OrderStatus.CANCELLED))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("No se permiten transiciones desde SHIPPED");
+	}
+
+	@Test
+	void conditionalUpdatesRejectStaleVersions() {
+		OrderOutputDTO created = orderService.create(orderInput(2)); // 1 + 2 unidades
+		assertThat(created.getVersion()).isZero();
+
+		// Otros ítems con el mismo total también cuentan como cambio
+		OrderInputDTO sameTotal = orderInput(1);
+		sameTotal.getItems().get(0).setQuantity(3);
+		OrderOutputDTO updated = orderService.update(customer.getId(), created.getOrderId(), sameTotal, 0L);
+		assertThat(updated.getVersion()).isEqualTo(1);
+
+		assertThatThrownBy(() -> orderService.updateStatus(customer.getId(), created.getOrderId(), OrderStatus.PAID, 0L))
+				.isInstanceOf(VersionConflictException.class);
+
+		OrderOutputDTO paid = orderService.updateStatus(customer.getId(), created.getOrderId(), OrderStatus.PAID,
+				updated.getVersion());
+		assertThat(paid.getVersion()).isEqualTo(2);
+		Order paidOrder = orderRepository.findById(created.getOrderId()).orElseThrow();
+		assertThat(paidOrder.getVersion()).isEqualTo(2);
+		assertThat(paidOrder.getUpdatedAt()).isNotNull();
+
+		// El cambio masivo también incrementa la versión y actualiza la marca de modificación
+		LocalDateTime beforeBulk = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		orderService.updateStatusBulk(List.of(created.getOrderId()), OrderStatus.SHIPPED);
+		Order shipped = orderRepository.findById(created.getOrderId()).orElseThrow();
+		assertThat(shipped.getVersion()).isEqualTo(3);
+		assertThat(shipped.getUpdatedAt()).isAfterOrEqualTo(beforeBulk);
+	}
+
+	@Test
+	void everyUpdateAdvancesTheVersionExactlyOnce() {
+		OrderOutputDTO created = orderService.create(orderInput(2)); // 1 + 2 unidades
+
+		// Solo cambian los ítems, el total es el mismo
+		OrderInputDTO sameTotal = orderInput(1);
+		sameTotal.getItems().get(0).setQuantity(3);
+		OrderOutputDTO itemsOnly = orderService.update(customer.getId(), created.getOrderId(), sameTotal);
+		assertThat(itemsOnly.getTotal()).isEqualByComparingTo(created.getTotal());
+		assertThat(itemsOnly.getVersion()).isEqualTo(created.getVersion() + 1);
+		assertThat(orderRepository.findById(created.getOrderId()).orElseThrow().getVersion())
+				.isEqualTo(itemsOnly.getVersion());
+
+		// Cambian los ítems y el total
+		OrderInputDTO newTotal = orderInput(1);
+		newTotal.getItems().get(0).setQuantity(5);
+		OrderOutputDTO totalChanged = orderService.update(customer.getId(), created.getOrderId(), newTotal);
+		assertThat(totalChanged.getTotal()).isNotEqualByComparingTo(itemsOnly.getTotal());
+		assertThat(totalChanged.getVersion()).isEqualTo(itemsOnly.getVersion() + 1);
+		assertThat(orderRepository.findById(created.getOrderId()).orElseThrow().getVersion())
+				.isEqualTo(totalChanged.getVersion());
+	}
+
+	@Test
+	void updateWritesOnlyTheChangedItems() {
+		OrderOutputDTO created = orderService.create(orderInput(200));
+		Statistics stats = statistics();
+		String items = OrderItem.class.getName();
+
+		OrderInputDTO oneChanged = orderInput(200);
+		oneChanged.getItems().get(10).setQuantity(500);
+		long oneLine = statementsWithoutSequencesFor(
+				() -> orderService.update(customer.getId(), created.getOrderId(), oneChanged));
+		assertThat(stats.getEntityStatistics(items).getUpdateCount()).isEqualTo(1);
+		assertThat(stats.getEntityStatistics(items).getInsertCount()).isZero();
+		assertThat(stats.getEntityStatistics(items).getDeleteCount()).isZero();
+
+		// Veinte cantidades más cuestan las mismas sentencias: los UPDATE van en un lote
+		OrderInputDTO twentyChanged = orderInput(200);
+		twentyChanged.getItems().get(10).setQuantity(500);
+		for (int i = 100; i < 120; i++) {
+			twentyChanged.getItems().get(i).setQuantity(1000 + i);
+		}
+		long twentyLines = statementsWithoutSequencesFor(
+				() -> orderService.update(customer.getId(), created.getOrderId(), twentyChanged));
+		assertThat(stats.getEntityStatistics(items).getUpdateCount()).isEqualTo(20);
+		assertThat(twentyLines).isEqualTo(oneLine);
+
+		OrderInputDTO twoRemoved = orderInput(198);
+		twoRemoved.getItems().get(10).setQuantity(500);
+		for (int i = 100; i < 120; i++) {
+			twoRemoved.getItems().get(i).setQuantity(1000 + i);
+		}
+		statementsFor(() -> orderService.update(customer.getId(), created.getOrderId(), twoRemoved));
+		assertThat(stats.getEntityStatistics(items).getDeleteCount()).isEqualTo(2);
+		assertThat(stats.getEntityStatistics(items).getUpdateCount()).isZero();
+		assertThat(stats.getEntityStatistics(items).getInsertCount()).isZero();
+
+		OrderInputDTO threeAdded = orderInput(201);
+		threeAdded.getItems().get(10).setQuantity(500);
+		for (int i = 100; i < 120; i++) {
+			threeAdded.getItems().get(i).setQuantity(1000 + i);
+		}
+		OrderOutputDTO[] updated = new OrderOutputDTO[1];
+		statementsFor(() -> updated[0] = orderService.update(customer.getId(), created.getOrderId(), threeAdded));
+		assertThat(stats.getEntityStatistics(items).getInsertCount()).isEqualTo(3);
+		assertThat(stats.getEntityStatistics(items).getUpdateCount()).isZero();
+		assertThat(stats.getEntityStatistics(items).getDeleteCount()).isZero();
+
+		assertThat(updated[0].getItems()).hasSize(201);
+		assertThat(updated[0].getItems()).extracting(OrderItemOutputDTO::getQuantity)
+				.containsExactlyElementsOf(threeAdded.getItems().stream().map(OrderItemInputDTO::getQuantity).toList());
+	}
+
+	@Test
+	void ownershipIsCheckedWithoutLoadingForeignOrders() {
+		OrderOutputDTO created = orderService.create(orderInput(2));
+		Customer other = new Customer();
+		other.setFullName("Otro cliente");
+		other.setEmail("otro@test.com");
+		other.setPhone("654321");
+		Long otherId = customerRepository.save(other).getId();
+
+		Statistics stats = statistics();
+		// Consulta por id y cliente + existencia por id; ni el pedido ni sus ítems se cargan
+		assertThat(statementsFor(() -> assertThatThrownBy(
+				() -> orderService.update(otherId, created.getOrderId(), orderInput(1)))
+				.isInstanceOf(IllegalArgumentException.class))).isEqualTo(2);
+		assertThat(stats.getEntityLoadCount()).isZero();
+
+		assertThatThrownBy(() -> orderService.updateStatus(otherId, created.getOrderId(), OrderStatus.PAID))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> orderService.updateStatus(customer.getId(), created.getOrderId() + 1000,
+				OrderStatus.PAID)).isInstanceOf(EntityNotFoundException.class);
+		assertThat(orderService.updateStatus(customer.getId(), created.getOrderId(), OrderStatus.PAID).getStatus())
+				.isEqualTo("PAID");
+	}
+
+	@Test
+	void slicesSkipTheCountAndTotalsAreCached() {
+		createOrders(25, 1);
+
+		Slice<OrderOutputDTO>[] slice = new Slice[1];
+		// ids (size + 1) + pedidos con sus ítems, sin count
+		assertThat(statementsFor(() -> slice[0] = orderService.sliceByCustomerId(customer.getId(), PageRequest.of(0, 10))))
+				.isEqualTo(2);
+		assertThat(slice[0].getContent()).hasSize(10);
+		assertThat(slice[0].hasNext()).isTrue();
+
+		Slice<OrderOutputDTO> last = orderService.sliceByCustomerId(customer.getId(), PageRequest.of(2, 10));
+		assertThat(last.getContent()).hasSize(5);
+		assertThat(last.hasNext()).isFalse();
+
+		assertThat(statementsFor(() -> assertThat(orderService.countByCustomerId(customer.getId())).isEqualTo(25)))
+				.isEqualTo(1);
+		createOrders(1, 1);
+		// Dentro del TTL se sirve el total cacheado, aunque ya no sea exacto
+		assertThat(statementsFor(() -> assertThat(orderService.countByCustomerId(customer.getId())).isEqualTo(25)))
+				.isZero();
+	}
+
+	@Test
+	void idempotentCreateReturnsTheOriginalOrderOnRetries() {
+		OrderOutputDTO first = orderService.create("pedido-1", orderInput(2));
+		long orders = orderRepository.count();
+
+		// Reintento en el mismo nodo: se contesta desde memoria
+		OrderOutputDTO[] retry = new OrderOutputDTO[1];
+		assertThat(statementsFor(() -> retry[0] = orderService.create("pedido-1", orderInput(2)))).isZero();
+		assertThat(retry[0]).isEqualTo(first);
+
+		// Sin la copia en memoria (otro nodo): una lectura por clave primaria, sin validar la entrada
+		orderIdempotencyStore.clearLocal();
+		assertThat(statementsFor(() -> retry[0] = orderService.create("pedido-1", orderInput(2)))).isEqualTo(1);
+		assertThat(retry[0]).isEqualTo(first);
+		assertThat(orderRepository.count()).isEqualTo(orders);
+
+		assertThat(orderService.create("pedido-2", orderInput(2)).getOrderId()).isNotEqualTo(first.getOrderId());
+		OrderInputDTO invalid = new OrderInputDTO();
+		invalid.setCustomerId(customer.getId());
+		assertThatThrownBy(() -> orderService.create("pedido-3", invalid))
+				.isInstanceOf(ConstraintViolationException.class);
+		assertThat(orderIdempotencyKeyRepository.existsById(new OrderIdempotencyKey.Key(customer.getId(), "pedido-3")))
+				.isFalse();
+	}
+
+	@Test
+	void idempotencyKeysAreScopedToTheCustomerAndTheirInput() {
+		OrderOutputDTO first = orderService.create("pedido-1", orderInput(2));
+
+		// La misma clave con otra entrada se rechaza, en memoria y desde la BBDD
+		assertThatThrownBy(() -> orderService.create("pedido-1", orderInput(3)))
+				.isInstanceOf(ResourceAlreadyExistsException.class);
+		orderIdempotencyStore.clearLocal();
+		assertThatThrownBy(() -> orderService.create("pedido-1", orderInput(3)))
+				.isInstanceOf(ResourceAlreadyExistsException.class);
+		assertThat(orderService.create("pedido-1", orderInput(2))).isEqualTo(first);
+
+		// La misma clave de otro cliente es otra alta
+		Customer other = new Customer();
+		other.setFullName("Otro cliente");
+		other.setEmail("otro@test.com");
+		other.setPhone("654321");
+		other = customerRepository.save(other);
+		Address otherAddress = new Address();
+		otherAddress.setCustomer(other);
+		otherAddress.setLine1("Calle Menor 2");
+		otherAddress.setCity("Madrid");
+		otherAddress.setPostalCode("28002");
+		otherAddress.setCountry("ES");
+		otherAddress.setIsDefault(true);
+		OrderInputDTO otherInput = orderInput(2);
+		otherInput.setCustomerId(other.getId());
+		otherInput.setAddressId(addressRepository.save(otherAddress).getId());
+		OrderOutputDTO otherOrder = orderService.create("pedido-1", otherInput);
+		assertThat(otherOrder.getOrderId()).isNotEqualTo(first.getOrderId());
+		assertThat(orderRepository.count()).isEqualTo(2);
+	}
+
+	@Test
+	void concurrentRetriesWithTheSameKeyCreateOneOrder() throws Exception {
+		int threads = 4;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<OrderOutputDTO>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(pool.submit(() -> orderService.create("pedido-concurrente", orderInput(50))));
+			}
+			List<Long> ids = new ArrayList<>();
+			for (Future<OrderOutputDTO> result : results) {
+				ids.add(result.get().getOrderId());
+			}
+			assertThat(ids).containsOnly(ids.get(0));
+			assertThat(orderRepository.count()).isEqualTo(1);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package com.delogica.springboot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.delogica.springboot.dto.ProductInputDTO;
+import com.delogica.springboot.dto.ProductOutputDTO;
+import com.delogica.springboot.exceptions.VersionConflictException;
+import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.search.ProductSearchIndex;
+import com.delogica.springboot.search.ProductSearchIndexLoader;
+import com.delogica.springboot.service.interfaces.ProductService;
+import com.delogica.springboot.service.interfaces.StockService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductServiceImplTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+
+	@Autowired
+	private ProductSearchIndexLoader productSearchIndexLoader;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private ProductOutputDTO product;
+
+	@BeforeEach
+	void setUp() {
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+		productSearchIndex.clear();
+		product = productService.create(input("SKU-1", "Teclado", "25.00"));
+		// Las cuentas de sentencias miden la caché de Spring, no la de segundo nivel
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAll();
+	}
+
+	private static ProductInputDTO input(String sku, String name, String price) {
+		ProductInputDTO dto = new ProductInputDTO();
+		dto.setSku(sku);
+		dto.setName(name);
+		dto.setPrice(new BigDecimal(price));
+		dto.setStock(10);
+		dto.setActive(true);
+		return dto;
+	}
+
+	private long statementsFor(Runnable action) {
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		action.run();
+		return stats.getPrepareStatementCount();
+	}
+
+	@Test
+	void searchIndexLoadsFromProjectedRowsWithoutCounting() {
+		productService.create(input("SKU-2", "Ratón", "15.00"));
+		productSearchIndex.clear();
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// Un único bloque: la consulta keyset, sin COUNT ni entidades cargadas
+		assertThat(statementsFor(productSearchIndexLoader::load)).isEqualTo(1);
+		assertThat(stats.getEntityLoadCount()).isZero();
+		assertThat(stats.getSecondLevelCachePutCount()).isZero();
+		assertThat(productSearchIndex.size()).isEqualTo(2);
+		assertThat(productSearchIndex.search("raton")).extracting(ProductSearchIndex.Hit::productId)
+				.isNotEmpty();
+	}
+
+	@Test
+	void repeatedReadsAreServedFromCache() {
+		assertThat(statementsFor(() -> productService.findById(product.getId()))).isEqualTo(1);
+		assertThat(statementsFor(() -> productService.findById(product.getId()))).isZero();
+		assertThat(statementsFor(() -> productService.findBySku("SKU-1"))).isEqualTo(1);
+		assertThat(statementsFor(() -> productService.findBySku("SKU-1"))).isZero();
+		assertThat(statementsFor(() -> productService.findByIsActiveTrue())).isEqualTo(1);
+		assertThat(statementsFor(() -> productService.findByIsActiveTrue())).isZero();
+	}
+
+	@Test
+	void writesEvictTheAffectedEntries() {
+		productService.findById(product.getId());
+		productService.findBySku("SKU-1");
+		assertThat(productService.findByIsActiveTrue()).hasSize(1);
+
+		productService.update(product.getId(), input("SKU-2", "Teclado mecánico", "30.00"));
+
+		assertThat(productService.findById(product.getId()).getName()).isEqualTo("Teclado mecánico");
+		assertThat(productService.findBySku("SKU-2").getId()).isEqualTo(product.getId());
+		assertThat(cacheManager.getCache("productsBySku").get("SKU-1")).isNull();
+
+		productService.create(input("SKU-3", "Ratón", "10.00"));
+		assertThat(productService.findByIsActiveTrue()).hasSize(2);
+
+		productService.delete(product.getId());
+		assertThat(productService.findByIsActiveTrue()).hasSize(1);
+		assertThat(productService.findById(product.getId()).getActive()).isFalse();
+	}
+
+	@Test
+	void searchIsKeptInSyncWithWrites() {
+		productService.create(input("SKU-2", "Teclado numérico", "15.00"));
+		productService.create(input("SKU-3", "Ratón", "10.00"));
+
+		Page<ProductOutputDTO> page = productService.search("TECLADO", PageRequest.of(0, 1));
+		assertThat(page.getTotalElements()).isEqualTo(2);
+		assertThat(page.getContent()).hasSize(1);
+
+		productService.update(product.getId(), input("SKU-1", "Monitor", "99.00"));
+		assertThat(productService.search("teclado", PageRequest.of(0, 10)).getContent())
+				.extracting(ProductOutputDTO::getName).containsExactly("Teclado numérico");
+		assertThat(productService.search("monit", null).getContent()).hasSize(1);
+	}
+
+	@Test
+	void inactiveProductsLeaveTheSearchIndex() {
+		ProductOutputDTO other = productService.create(input("SKU-2", "Teclado numérico", "15.00"));
+
+		productService.delete(product.getId());
+		assertThat(productService.search("teclado", null).getContent())
+				.extracting(ProductOutputDTO::getId).containsExactly(other.getId());
+
+		ProductInputDTO deactivated = input("SKU-2", "Teclado numérico", "15.00");
+		deactivated.setActive(false);
+		productService.update(other.getId(), deactivated);
+		assertThat(productService.search("teclado", null).getTotalElements()).isZero();
+
+		// Al arrancar tampoco se cargan; reactivado vuelve a aparecer
+		productSearchIndexLoader.load();
+		assertThat(productSearchIndex.size()).isZero();
+		productService.update(other.getId(), input("SKU-2", "Teclado numérico", "15.00"));
+		assertThat(productService.search("teclado", null).getContent())
+				.extracting(ProductOutputDTO::getId).containsExactly(other.getId());
+	}
+
+	@Test
+	void conditionalUpdateRejectsStaleVersions() {
+		ProductOutputDTO read = productService.findById(product.getId());
+		ProductOutputDTO updated = productService.update(product.getId(), input("SKU-1", "Teclado", "27.00"),
+				read.getVersion());
+
+		assertThat(updated.getVersion()).isEqualTo(read.getVersion() + 1);
+		assertThatThrownBy(() -> productService.update(product.getId(), input("SKU-1", "Teclado", "29.00"),
+				read.getVersion())).isInstanceOf(VersionConflictException.class);
+		assertThat(productService.findById(product.getId()).getPrice()).isEqualTo(27.00);
+	}
+
+	@Test
+	void stockChangesOnlyThroughRelativeUpdatesThatBumpTheVersion() {
+		ProductOutputDTO read = productService.findById(product.getId());
+
+		// Una reserva cuenta como cambio: la edición con la versión leída antes se rechaza
+		stockService.reserve(Map.of(product.getId(), 4));
+		assertThatThrownBy(() -> productService.update(product.getId(), input("SKU-1", "Teclado", "27.00"),
+				read.getVersion())).isInstanceOf(VersionConflictException.class);
+
+		// La edición general no toca el stock aunque el DTO lo traiga
+		ProductInputDTO edit = input("SKU-1", "Teclado", "27.00");
+		edit.setStock(500);
+		productService.update(product.getId(), edit);
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(6);
+
+		stockService.restock(product.getId(), 20);
+		stockService.restock(product.getId(), -1);
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(25);
+		assertThatThrownBy(() -> stockService.restock(product.getId(), -26))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void listingProjectsWithoutLoadingEntities() {
+		ProductOutputDTO mouse = productService.create(input("SKU-2", "Ratón", "10.50"));
+		entityManagerFactory.getCache().evictAll();
+		ProductOutputDTO expected = productService.findById(mouse.getId());
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		Page<ProductOutputDTO> page = productService.findAll(PageRequest.of(0, 1)); // name ASC
+
+		assertThat(stats.getEntityLoadCount()).isZero();
+		assertThat(page.getTotalElements()).isEqualTo(2);
+		assertThat(page.getContent()).containsExactly(expected);
+	}
+
+	@Test
+	void sliceReadsOneExtraRowInsteadOfCounting() {
+		productService.create(input("SKU-2", "Ratón", "10.50"));
+
+		assertThat(statementsFor(() -> {
+			Slice<ProductOutputDTO> first = productService.sliceAll(PageRequest.of(0, 1));
+			assertThat(first.getContent()).extracting(ProductOutputDTO::getSku).containsExactly("SKU-2");
+			assertThat(first.hasNext()).isTrue();
+		})).isEqualTo(1);
+		assertThat(productService.sliceAll(PageRequest.of(1, 1)).hasNext()).isFalse();
+		assertThat(productService.countAll()).isEqualTo(2);
+	}
+}
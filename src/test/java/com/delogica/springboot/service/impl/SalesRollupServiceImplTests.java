@@ -0,0 +1,178 @@
+package com.delogica.springboot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.delogica.springboot.dto.DailySalesDTO;
+import com.delogica.springboot.dto.OrderInputDTO;
+import com.delogica.springboot.dto.OrderItemInputDTO;
+import com.delogica.springboot.dto.OrderOutputDTO;
+import com.delogica.springboot.dto.ProductSalesDTO;
+import com.delogica.springboot.dto.StatusSalesDTO;
+import com.delogica.springboot.model.Address;
+import com.delogica.springboot.model.Customer;
+import com.delogica.springboot.model.OrderStatus;
+import com.delogica.springboot.model.Product;
+import com.delogica.springboot.repository.AddressRepository;
+import com.delogica.springboot.repository.CustomerRepository;
+import com.delogica.springboot.repository.OrderRepository;
+import com.delogica.springboot.repository.ProductRepository;
+import com.delogica.springboot.repository.SalesDailyProductRepository;
+import com.delogica.springboot.repository.SalesDailyStatusRepository;
+import com.delogica.springboot.service.interfaces.OrderService;
+import com.delogica.springboot.service.interfaces.SalesRollupService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SalesRollupServiceImplTests {
+
+	@Autowired
+	private SalesRollupService salesRollupService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private AddressRepository addressRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private SalesDailyStatusRepository statusRepository;
+
+	@Autowired
+	private SalesDailyProductRepository salesProductRepository;
+
+	private Customer customer;
+	private Address address;
+	private Product keyboard;
+	private Product mouse;
+
+	@BeforeEach
+	void setUp() {
+		customer = new Customer();
+		customer.setFullName("Cliente Test");
+		customer.setEmail("rollup@test.com");
+		customer.setPhone("123456");
+		customer = customerRepository.save(customer);
+
+		address = new Address();
+		address.setCustomer(customer);
+		address.setLine1("Calle Mayor 1");
+		address.setCity("Madrid");
+		address.setPostalCode("28001");
+		address.setCountry("ES");
+		address.setIsDefault(true);
+		address = addressRepository.save(address);
+
+		keyboard = product("SKU-K", "25.00");
+		mouse = product("SKU-M", "10.00");
+	}
+
+	@AfterEach
+	void tearDown() {
+		statusRepository.deleteAll();
+		salesProductRepository.deleteAll();
+		orderRepository.deleteAll();
+		addressRepository.deleteAll();
+		customerRepository.deleteAll();
+		productRepository.deleteAll();
+	}
+
+	private Product product(String sku, String price) {
+		Product product = new Product();
+		product.setSku(sku);
+		product.setName(sku);
+		product.setPrice(new BigDecimal(price));
+		product.setStock(1000);
+		product.setActive(true);
+		return productRepository.save(product);
+	}
+
+	private OrderInputDTO orderInput(int keyboards, int mice) {
+		OrderItemInputDTO k = new OrderItemInputDTO();
+		k.setProductId(keyboard.getId());
+		k.setQuantity(keyboards);
+		OrderItemInputDTO m = new OrderItemInputDTO();
+		m.setProductId(mouse.getId());
+		m.setQuantity(mice);
+		OrderInputDTO input = new OrderInputDTO();
+		input.setCustomerId(customer.getId());
+		input.setAddressId(address.getId());
+		input.setItems(List.of(k, m));
+		return input;
+	}
+
+	@Test
+	void rollupsFollowCreateUpdateAndStatusChanges() {
+		LocalDate today = LocalDate.now();
+
+		OrderOutputDTO first = orderService.create(orderInput(1, 2)); // 25 + 20
+		OrderOutputDTO second = orderService.create(orderInput(2, 1)); // 50 + 10
+		orderService.update(customer.getId(), second.getOrderId(), orderInput(1, 1)); // 25 + 10
+		orderService.updateStatus(customer.getId(), first.getOrderId(), OrderStatus.PAID);
+		orderService.updateStatus(customer.getId(), second.getOrderId(), OrderStatus.CANCELLED);
+
+		List<DailySalesDTO> daily = salesRollupService.findDailySales(today, today, null);
+		assertThat(daily).hasSize(1);
+		assertThat(daily.get(0).getOrderCount()).isEqualTo(1);
+		assertThat(daily.get(0).getRevenue()).isEqualByComparingTo("45.00");
+
+		assertThat(salesRollupService.findStatusSales(today, today))
+				.extracting(StatusSalesDTO::getStatus, StatusSalesDTO::getOrderCount)
+				.containsExactlyInAnyOrder(
+						tuple(OrderStatus.PAID, 1L),
+						tuple(OrderStatus.CANCELLED, 1L),
+						tuple(OrderStatus.CREATED, 0L));
+
+		List<ProductSalesDTO> all = salesRollupService.findProductSales(today, today, List.of(OrderStatus.values()));
+		assertThat(all).extracting(ProductSalesDTO::getProductId).containsExactly(keyboard.getId(), mouse.getId());
+		assertThat(all.get(0).getUnits()).isEqualTo(2);
+		assertThat(all.get(0).getRevenue()).isEqualByComparingTo("50.00");
+		assertThat(all.get(1).getUnits()).isEqualTo(3);
+	}
+
+	@Test
+	void rebuildReproducesTheIncrementalRollups() {
+		LocalDate today = LocalDate.now();
+		orderService.create(orderInput(1, 2));
+		OrderOutputDTO paid = orderService.create(orderInput(3, 0));
+		orderService.updateStatus(customer.getId(), paid.getOrderId(), OrderStatus.PAID);
+
+		List<DailySalesDTO> incremental = salesRollupService.findDailySales(today, today, null);
+		List<ProductSalesDTO> incrementalProducts = salesRollupService.findProductSales(today, today, null);
+
+		statusRepository.deleteAll();
+		salesProductRepository.deleteAll();
+		assertThat(salesRollupService.findDailySales(today, today, null)).isEmpty();
+
+		assertThat(salesRollupService.rebuild(today, today.minusDays(2))).isEqualTo(3);
+
+		List<DailySalesDTO> rebuilt = salesRollupService.findDailySales(today, today, null);
+		assertThat(rebuilt).hasSize(1);
+		assertThat(rebuilt.get(0).getOrderCount()).isEqualTo(incremental.get(0).getOrderCount());
+		assertThat(rebuilt.get(0).getRevenue()).isEqualByComparingTo(incremental.get(0).getRevenue());
+		assertThat(salesRollupService.findProductSales(today, today, null))
+				.usingRecursiveFieldByFieldElementComparator()
+				.usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+				.containsExactlyElementsOf(incrementalProducts);
+	}
+}